@@ -0,0 +1,55 @@
+package io.github.jvlealc.securecapita.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jvlealc.securecapita.dto.ApiResponseDto;
+import io.github.jvlealc.securecapita.mapper.RoleMapper;
+import io.github.jvlealc.securecapita.mapper.UserMapper;
+import io.github.jvlealc.securecapita.security.model.CustomUserDetails;
+import io.github.jvlealc.securecapita.security.provider.TokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização Jackson de um {@link ApiResponseDto} de login (usuário + tokens), com o {@link ObjectMapper}
+ * configurado como o do Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ApiResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiResponseDto loginResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        TokenProvider tokenProvider = BenchmarkFixtures.tokenProvider(BenchmarkFixtures.tokenAuthenticationCache());
+        CustomUserDetails userPrincipal = new CustomUserDetails(BenchmarkFixtures.user());
+        loginResponse = ApiResponseDto.builder()
+                .timestamp(LocalDateTime.now().toString())
+                .data(Map.of(
+                        "user", new UserMapper(new RoleMapper()).toResponseDto(userPrincipal.getUser()),
+                        "access_token", tokenProvider.createAccessToken(userPrincipal),
+                        "refresh_token", tokenProvider.createRefreshToken(userPrincipal)
+                ))
+                .message("Login successful")
+                .status(HttpStatus.OK)
+                .statusCode(HttpStatus.OK.value())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] loginResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loginResponse);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.jvlealc.securecapita.benchmark;
+
+import io.github.jvlealc.securecapita.security.cache.TokenAuthenticationCache;
+import io.github.jvlealc.securecapita.security.filter.CustomAuthorizationFilter;
+import io.github.jvlealc.securecapita.security.model.CustomUserDetails;
+import io.github.jvlealc.securecapita.security.provider.TokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do {@link CustomAuthorizationFilter} por requisição, passando por {@code shouldNotFilter}
+ * e {@code doFilterInternal} via {@code doFilter}.
+ * <p>
+ * {@code publicRoute} é descartada em {@code shouldNotFilter}; {@code authenticatedCacheHit} encontra o token
+ * já verificado no cache; {@code authenticatedCacheMiss} verifica a assinatura a cada chamada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AuthorizationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private CustomAuthorizationFilter cachedFilter;
+    private CustomAuthorizationFilter uncachedFilter;
+    private MockHttpServletRequest publicRequest;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        TokenAuthenticationCache cache = BenchmarkFixtures.tokenAuthenticationCache();
+        TokenProvider tokenProvider = BenchmarkFixtures.tokenProvider(cache);
+        String accessToken = tokenProvider.createAccessToken(new CustomUserDetails(BenchmarkFixtures.user()));
+
+        cachedFilter = new CustomAuthorizationFilter(tokenProvider, cache, (request, response, handler, ex) -> null);
+        // Cache sem capacidade: toda requisição verifica a assinatura
+        TokenAuthenticationCache noCache = new TokenAuthenticationCache(0, Duration.ZERO, new SimpleMeterRegistry());
+        uncachedFilter = new CustomAuthorizationFilter(tokenProvider, noCache, (request, response, handler, ex) -> null);
+
+        publicRequest = new MockHttpServletRequest("POST", "/users/login");
+        authenticatedRequest = new MockHttpServletRequest("GET", "/users/profile");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + accessToken);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void publicRoute() throws ServletException, IOException {
+        this.filter(cachedFilter, publicRequest);
+    }
+
+    @Benchmark
+    public void authenticatedCacheHit() throws ServletException, IOException {
+        this.filter(cachedFilter, authenticatedRequest);
+    }
+
+    @Benchmark
+    public void authenticatedCacheMiss() throws ServletException, IOException {
+        this.filter(uncachedFilter, authenticatedRequest);
+    }
+
+    private void filter(CustomAuthorizationFilter filter, MockHttpServletRequest request) throws ServletException, IOException {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        request.clearAttributes(); // OncePerRequestFilter marca a requisição como já filtrada
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.jvlealc.securecapita.benchmark;
+
+import io.github.jvlealc.securecapita.domain.Role;
+import io.github.jvlealc.securecapita.domain.User;
+import io.github.jvlealc.securecapita.domain.enums.MfaType;
+import io.github.jvlealc.securecapita.security.cache.TokenAuthenticationCache;
+import io.github.jvlealc.securecapita.security.provider.TokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Dados e componentes compartilhados pelos benchmarks, montados sem contexto Spring.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "benchmark-secret-with-enough-entropy-for-hmac512-signing";
+    static final String SYSADMIN_PERMISSIONS =
+            "READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER, DELETE:USER, DELETE:CUSTOMER";
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user() {
+        Role role = new Role();
+        role.setId(4L);
+        role.setName("ROLE_SYSADMIN");
+        role.setPermission(SYSADMIN_PERMISSIONS);
+        return User.builder()
+                .id(42L)
+                .firstName("Maria")
+                .lastName("Silva")
+                .email("benchmark@securecapita.org")
+                .password("{noop}password")
+                .phone("11999990000")
+                .address("Av. Paulista, 1000 - São Paulo")
+                .title("Financial Analyst")
+                .bio("Responsible for invoices and customer accounts. ".repeat(8))
+                .enabled(true)
+                .usingMfa(false)
+                .mfaType(MfaType.EMAIL)
+                .createdAt(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .role(role)
+                .build();
+    }
+
+    static TokenProvider tokenProvider(TokenAuthenticationCache tokenAuthenticationCache) {
+        return new TokenProvider(SECRET, false, tokenAuthenticationCache, new SimpleMeterRegistry());
+    }
+
+    static TokenAuthenticationCache tokenAuthenticationCache() {
+        return new TokenAuthenticationCache(10_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    }
+}
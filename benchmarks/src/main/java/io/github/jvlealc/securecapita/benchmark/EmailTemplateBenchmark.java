@@ -0,0 +1,69 @@
+package io.github.jvlealc.securecapita.benchmark;
+
+import io.github.jvlealc.securecapita.template.CompiledTemplate;
+import io.github.jvlealc.securecapita.template.EmailTemplate;
+import io.github.jvlealc.securecapita.template.EmailTemplateEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a renderização antiga via {@code String.format} sobre text blocks com o template pré-compilado.
+ * <p>
+ * Executar com {@code -prof gc} para observar a alocação por operação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmailTemplateBenchmark {
+
+    @Param({"MFA_CODE", "RESET_PASSWORD", "RESET_PASSWORD_CONFIRMATION", "ACCOUNT_VERIFICATION", "ACCOUNT_VERIFIED"})
+    public EmailTemplate template;
+
+    private String formatPattern;
+    private CompiledTemplate compiledTemplate;
+    private String[] values;
+
+    @Setup
+    public void setUp() {
+        String source = EmailTemplateEngine.loadSource(template);
+        String[] parameterNames = template.getParameterNames();
+
+        String pattern = source.replace("%", "%%");
+        for (String name : parameterNames) {
+            pattern = pattern.replace("{{" + name + "}}", "%" + (indexOf(parameterNames, name) + 1) + "$s");
+        }
+        formatPattern = pattern;
+        compiledTemplate = CompiledTemplate.compile(source, parameterNames);
+
+        values = new String[parameterNames.length];
+        values[0] = "Maria";
+        if (values.length > 1) {
+            values[1] = template == EmailTemplate.MFA_CODE
+                    ? "ABC12345"
+                    : "http://localhost:8080/user/verify/password/6f1c0f4e-2d7b-4c55-9a43-7d3e2b8f9a10";
+        }
+    }
+
+    @Benchmark
+    public String legacyStringFormat() {
+        return String.format(formatPattern, (Object[]) values);
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return compiledTemplate.render(values);
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.jvlealc.securecapita.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.github.jvlealc.securecapita.security.model.CustomUserDetails;
+import io.github.jvlealc.securecapita.security.model.VerifiedToken;
+import io.github.jvlealc.securecapita.security.provider.TokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da verificação de tokens no {@code CustomAuthorizationFilter}.
+ * <p>
+ * {@code legacyPerRequest} reproduz o comportamento anterior (algoritmo e verificador reconstruídos
+ * e o token verificado duas vezes: subject e authorities); {@code cachedSinglePass} usa o
+ * {@link TokenProvider} atual, com chave em cache e uma única verificação. {@code createAccessToken}
+ * mede a emissão de um token de acesso no login.
+ * <p>
+ * Executar pelo método {@code main} (IDE) ou pelo {@code benchmarks.jar}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    private static final String SECRET = BenchmarkFixtures.SECRET;
+    private static final String ISSUER = "JV_LEAL_DEV";
+
+    private TokenProvider tokenProvider;
+    private MockHttpServletRequest request;
+    private String accessToken;
+    private CustomUserDetails userPrincipal;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = BenchmarkFixtures.tokenProvider(BenchmarkFixtures.tokenAuthenticationCache());
+        request = new MockHttpServletRequest("GET", "/users/profile");
+        userPrincipal = new CustomUserDetails(BenchmarkFixtures.user());
+        accessToken = tokenProvider.createAccessToken(userPrincipal);
+    }
+
+    @Benchmark
+    public void legacyPerRequest(Blackhole blackhole) {
+        Algorithm subjectAlgorithm = Algorithm.HMAC512(SECRET.getBytes(StandardCharsets.UTF_8));
+        blackhole.consume(JWT.require(subjectAlgorithm).withIssuer(ISSUER).build().verify(accessToken).getSubject());
+        Algorithm claimsAlgorithm = Algorithm.HMAC512(SECRET.getBytes(StandardCharsets.UTF_8));
+        blackhole.consume(JWT.require(claimsAlgorithm).withIssuer(ISSUER).build().verify(accessToken)
+                .getClaim("authorities").asArray(String.class));
+    }
+
+    @Benchmark
+    public VerifiedToken cachedSinglePass() {
+        return tokenProvider.verifyToken(accessToken, request);
+    }
+
+    @Benchmark
+    public String createAccessToken() {
+        return tokenProvider.createAccessToken(userPrincipal);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenProviderBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.jvlealc.securecapita.benchmark;
+
+import io.github.jvlealc.securecapita.domain.User;
+import io.github.jvlealc.securecapita.dto.UserResponseDto;
+import io.github.jvlealc.securecapita.mapper.RoleMapper;
+import io.github.jvlealc.securecapita.mapper.UserMapper;
+import io.github.jvlealc.securecapita.security.model.UserSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão para {@link UserResponseDto} a partir da entidade e da projeção {@link UserSnapshot}
+ * (caminho usado por {@code /users/profile}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserMapperBenchmark {
+
+    private UserMapper userMapper;
+    private User user;
+    private UserSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapper(new RoleMapper());
+        user = BenchmarkFixtures.user();
+        snapshot = new UserSnapshot(
+                user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getPassword(),
+                user.getPhone(), user.getAddress(), user.getTitle(), user.getBio(), user.isEnabled(),
+                user.isNonLocked(), user.isUsingMfa(), user.getMfaType(), user.getImageUrl(), user.getCreatedAt(),
+                user.getRole().getId(), user.getRole().getName(), user.getRole().getPermission()
+        );
+    }
+
+    @Benchmark
+    public UserResponseDto fromEntity() {
+        return userMapper.toResponseDto(user);
+    }
+
+    @Benchmark
+    public UserResponseDto fromSnapshot() {
+        return userMapper.toResponseDto(snapshot);
+    }
+
+    @Benchmark
+    public User snapshotToUser() {
+        return snapshot.toUser();
+    }
+}
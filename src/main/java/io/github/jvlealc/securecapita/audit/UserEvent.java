@@ -0,0 +1,17 @@
+package io.github.jvlealc.securecapita.audit;
+
+import io.github.jvlealc.securecapita.domain.enums.EventType;
+
+import java.time.Instant;
+
+/**
+ * Evento de auditoria aguardando gravação em {@code user_events}.
+ *
+ * @param userId id do usuário
+ * @param type tipo do evento
+ * @param device User-Agent da requisição, quando houver
+ * @param ipAddress endereço IP do cliente, quando houver
+ * @param occurredAt instante em que o evento ocorreu
+ */
+public record UserEvent(Long userId, EventType type, String device, String ipAddress, Instant occurredAt) {
+}
@@ -0,0 +1,206 @@
+package io.github.jvlealc.securecapita.audit;
+
+import io.github.jvlealc.securecapita.domain.enums.EventType;
+import io.github.jvlealc.securecapita.security.web.ClientAddresses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trilha de auditoria {@code user_events} gravada fora do caminho da requisição.
+ * <p>
+ * {@link #record(Long, EventType)} apenas publica o evento em um {@link UserEventRingBuffer} sem locks
+ * (dentro de uma transação, somente após o commit) e retorna. {@link #flush()} esvazia o buffer
+ * periodicamente em inserts JDBC em lote. Com o buffer cheio o evento é descartado e contado em
+ * {@code user.events.dropped}; a auditoria nunca bloqueia nem falha a requisição.
+ */
+@Component
+public class UserEventRecorder implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserEventRecorder.class);
+
+    private static final String METRIC_PREFIX = "user.events";
+    private static final int MAX_COLUMN_LENGTH = 100;
+    private static final String INSERT_USER_EVENT =
+            "INSERT INTO user_events (user_id, event_id, device, ip_address, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserEventRingBuffer<UserEvent> buffer;
+    private final int batchSize;
+    private final Map<EventType, Long> eventIds = new EnumMap<>(EventType.class);
+    private final Set<String> unknownEventTypes = new HashSet<>();
+    private final AtomicLong droppedSinceLastFlush = new AtomicLong();
+    private final Counter bufferFullCounter;
+    private final Counter writeErrorCounter;
+    private final Counter writtenCounter;
+    private final Timer lagTimer;
+
+    public UserEventRecorder(
+            JdbcTemplate jdbcTemplate,
+            @Value("${application.audit.events.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${application.audit.events.batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new UserEventRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.bufferFullCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("Audit events discarded before reaching the database")
+                .tag("reason", "buffer_full")
+                .register(meterRegistry);
+        this.writeErrorCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("Audit events discarded before reaching the database")
+                .tag("reason", "write_error")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder(METRIC_PREFIX + ".written")
+                .description("Audit events written to user_events")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder(METRIC_PREFIX + ".lag")
+                .description("Time between an audit event and its insert into user_events")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".buffer.size", buffer, UserEventRingBuffer::size)
+                .description("Audit events waiting in the in-memory buffer")
+                .register(meterRegistry);
+        LOGGER.info("User event buffer started with capacity {}.", buffer.capacity());
+    }
+
+    /**
+     * Registra um evento de auditoria sem aguardar a gravação. Device e IP são lidos da requisição corrente, se houver.
+     *
+     * @param userId id do usuário; eventos sem usuário são ignorados.
+     * @param type tipo do evento.
+     */
+    public void record(Long userId, EventType type) {
+        if (userId == null) {
+            return;
+        }
+        HttpServletRequest request = currentRequest();
+        UserEvent event = new UserEvent(
+                userId,
+                type,
+                request == null ? null : StringUtils.truncate(request.getHeader("User-Agent"), MAX_COLUMN_LENGTH),
+                StringUtils.truncate(ClientAddresses.resolve(request), MAX_COLUMN_LENGTH),
+                Instant.now()
+        );
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            this.publish(event);
+        }
+    }
+
+    /**
+     * Grava os eventos pendentes em lotes de até {@code batch-size}. Único consumidor do buffer.
+     */
+    @Scheduled(fixedDelayString = "${application.audit.events.flush-interval:1s}")
+    public synchronized void flush() {
+        long dropped = droppedSinceLastFlush.getAndSet(0);
+        if (dropped > 0) {
+            LOGGER.warn("User event buffer was full; {} audit events were dropped.", dropped);
+        }
+        List<UserEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            this.write(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.flush();
+    }
+
+    private void publish(UserEvent event) {
+        if (!buffer.offer(event)) {
+            bufferFullCounter.increment();
+            droppedSinceLastFlush.incrementAndGet();
+        }
+    }
+
+    private void write(List<UserEvent> batch) {
+        try {
+            Map<EventType, Long> ids = this.eventIds();
+            jdbcTemplate.batchUpdate(INSERT_USER_EVENT, batch, batch.size(), (ps, event) -> {
+                ps.setLong(1, event.userId());
+                ps.setLong(2, ids.get(event.type()));
+                ps.setString(3, event.device());
+                ps.setString(4, event.ipAddress());
+                ps.setTimestamp(5, Timestamp.from(event.occurredAt()));
+            });
+            Instant now = Instant.now();
+            for (UserEvent event : batch) {
+                lagTimer.record(Duration.between(event.occurredAt(), now));
+            }
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            writeErrorCounter.increment(batch.size());
+            LOGGER.error("Failed to write {} user events; the batch was discarded.", batch.size(), e);
+        }
+    }
+
+    /**
+     * Ids do catálogo {@code events}, carregados uma vez; tipos ausentes no catálogo são inseridos.
+     * Linhas do catálogo com tipos desconhecidos por esta versão (ex.: criados por uma versão mais nova) são ignoradas.
+     */
+    private Map<EventType, Long> eventIds() {
+        if (eventIds.size() < EventType.values().length) {
+            this.loadEventIds();
+            for (EventType type : EventType.values()) {
+                if (!eventIds.containsKey(type)) {
+                    jdbcTemplate.update("INSERT INTO events (type, description) VALUES (?, ?)", type.name(), type.getDescription());
+                }
+            }
+            this.loadEventIds();
+        }
+        return eventIds;
+    }
+
+    private void loadEventIds() {
+        jdbcTemplate.query("SELECT id, type FROM events", rs -> {
+            String type = rs.getString("type");
+            try {
+                eventIds.put(EventType.valueOf(type), rs.getLong("id"));
+            } catch (IllegalArgumentException e) {
+                if (unknownEventTypes.add(type)) {
+                    LOGGER.warn("Ignoring unknown event type '{}' in the events catalog.", type);
+                }
+            }
+        });
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.jvlealc.securecapita.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular limitado e sem locks para vários produtores e um único consumidor.
+ * <p>
+ * Cada posição tem um número de sequência que indica se está livre para o produtor da volta corrente
+ * ou preenchida para o consumidor (algoritmo de D. Vyukov). Produtores disputam apenas um CAS no
+ * cursor de escrita; com o buffer cheio {@link #offer(Object)} retorna {@code false} imediatamente,
+ * sem bloquear a thread da requisição.
+ */
+final class UserEventRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    UserEventRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1) << 1); // próxima potência de 2
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return {@code false} se o buffer estiver cheio.
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long distance = sequences.get(index) - position;
+            if (distance == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1); // publica para o consumidor
+                    return true;
+                }
+                position = tail.get();
+            } else if (distance < 0) {
+                return false; // posição ainda não consumida da volta anterior
+            } else {
+                position = tail.get(); // outro produtor avançou o cursor
+            }
+        }
+    }
+
+    /**
+     * Move até {@code maxElements} elementos publicados para {@code sink}. Deve ser chamado por um único consumidor.
+     *
+     * @return quantidade de elementos movidos.
+     */
+    int drainTo(List<? super E> sink, int maxElements) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < maxElements) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break; // vazio ou produtor ainda publicando
+            }
+            sink.add(slots.getAndSet(index, null));
+            sequences.set(index, position + capacity); // libera a posição para a próxima volta
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
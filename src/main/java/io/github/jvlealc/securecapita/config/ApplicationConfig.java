@@ -1,17 +1,25 @@
 package io.github.jvlealc.securecapita.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.TimeZone;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class ApplicationConfig {
 
     @PostConstruct
@@ -19,27 +27,64 @@ public class ApplicationConfig {
         TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
     }
 
+    // Filas, threads ativas e tamanho do pool são publicados pelo actuator (métricas executor.*, tag name=<bean>);
+    // aqui contamos apenas as rejeições, que com CallerRunsPolicy não aparecem em nenhuma outra métrica.
+
     @Bean
-    public Executor taskExecutor() {
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor taskExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         int cores = Runtime.getRuntime().availableProcessors(); // Número de processadores
         executor.setCorePoolSize(cores);
         executor.setMaxPoolSize(cores * 2);
         executor.setQueueCapacity(500);
         executor.setThreadNamePrefix("AppAsync-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setRejectedExecutionHandler(callerRunsCountingRejections("taskExecutor", meterRegistry));
         executor.initialize();
         return executor;
     }
 
     @Bean(name = "emailExecutor")
-    public Executor emailExecutor() {
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor emailExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(10); // Mantém 10 threads sempre ativas
         executor.setMaxPoolSize(50); // Sobe até 50 threads caso a fila fique lotada
         executor.setQueueCapacity(25); // Fila de espera suporta 25 emails
         executor.setThreadNamePrefix("EmailThread-");
+        executor.setRejectedExecutionHandler(callerRunsCountingRejections("emailExecutor", meterRegistry)); // Fila cheia: o dispatcher da outbox envia o lote
         executor.initialize();
         return executor;
     }
+
+    // Modo threads virtuais (spring.threads.virtual.enabled=true): uma thread virtual por tarefa,
+    // a concorrência é limitada por semáforos nos recursos (pool JDBC e transporte SMTP).
+
+    @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AppAsync-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    @Bean(name = "emailExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualEmailExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("EmailThread-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    private static RejectedExecutionHandler callerRunsCountingRejections(String executorName, MeterRegistry meterRegistry) {
+        Counter rejections = Counter.builder("executor.rejected")
+                .description("Tasks rejected by a full pool and run on the caller thread")
+                .tag("name", executorName)
+                .register(meterRegistry);
+        RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+        return (task, executor) -> {
+            rejections.increment();
+            callerRuns.rejectedExecution(task, executor);
+        };
+    }
 }
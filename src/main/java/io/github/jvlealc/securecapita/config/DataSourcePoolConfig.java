@@ -0,0 +1,130 @@
+package io.github.jvlealc.securecapita.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Dimensionamento do pool Hikari ({@code application.datasource.pool}) a partir dos consumidores de conexão.
+ * <p>
+ * Tamanho: {@code 2 × núcleos} para as requisições (o hashing de senha já roda fora delas), mais um por lote
+ * simultâneo de emails ({@code application.mail.max-concurrent-sends}, que atualizam a outbox) e um por thread
+ * do scheduler. Com {@code expected-hold-time} (duração típica de uma transação), o connection-timeout cobre a
+ * espera de uma fila cheia de threads do Tomcat ({@code hold × threads / pool}) e o leak-detection sinaliza
+ * conexões presas muito além disso. Valores explícitos (diferentes de 0) substituem os derivados.
+ * <p>
+ * Propriedades definidas diretamente em {@code spring.datasource.hikari.*} ({@code maximum-pool-size},
+ * {@code minimum-idle}, {@code connection-timeout}, {@code leak-detection-threshold}) têm precedência e nunca
+ * são sobrescritas. O pool da réplica ({@link ReplicaRoutingConfig}) atende apenas as transações somente
+ * leitura das requisições e o {@code ReplicaLagMonitor}, e é dimensionado só com esses consumidores
+ * ({@code maximum-size} vale apenas para o primário).
+ * <p>
+ * No MySQL, ativa o cache de prepared statements no servidor e {@code rewriteBatchedStatements}, que transforma
+ * os {@code batchUpdate} (ex.: {@code user_events}) em INSERTs multi-linha.
+ */
+@Configuration
+public class DataSourcePoolConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSourcePoolConfig.class);
+
+    private static final String POOL_NAME = "securecapita";
+    private static final Duration MIN_CONNECTION_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration MIN_LEAK_DETECTION_THRESHOLD = Duration.ofSeconds(10);
+    private static final int LEAK_DETECTION_HOLD_MULTIPLIER = 100;
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari.";
+    private static final int LAG_MONITOR_CONNECTIONS = 1;
+
+    @Bean
+    public static BeanPostProcessor hikariPoolSizingPostProcessor(
+            @Value("${application.datasource.pool.maximum-size:0}") int maximumSize,
+            @Value("${application.datasource.pool.expected-hold-time:50ms}") Duration expectedHoldTime,
+            @Value("${application.datasource.pool.connection-timeout:0s}") Duration connectionTimeout,
+            @Value("${application.datasource.pool.leak-detection-threshold:0s}") Duration leakDetectionThreshold,
+            @Value("${application.datasource.pool.prepared-statement-cache-size:250}") int preparedStatementCacheSize,
+            @Value("${application.mail.max-concurrent-sends:10}") int maxConcurrentSends,
+            @Value("${spring.task.scheduling.pool.size:1}") int schedulingThreads,
+            @Value("${server.tomcat.threads.max:200}") int requestThreads,
+            Environment environment
+    ) {
+        Binder binder = Binder.get(environment);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikariDataSource)) {
+                    return bean;
+                }
+                // Executa depois do binding de spring.datasource.hikari: valores definidos lá são mantidos
+                int requestConnections = Runtime.getRuntime().availableProcessors() * 2;
+                int derivedSize;
+                if (ReplicaRoutingConfig.REPLICA_DATA_SOURCE.equals(beanName)) {
+                    derivedSize = requestConnections + LAG_MONITOR_CONNECTIONS;
+                } else {
+                    derivedSize = maximumSize > 0 ? maximumSize : requestConnections + maxConcurrentSends + schedulingThreads;
+                }
+                if (!isBound(binder, "maximum-pool-size")) {
+                    hikariDataSource.setMaximumPoolSize(derivedSize);
+                }
+                int poolSize = hikariDataSource.getMaximumPoolSize();
+                if (!isBound(binder, "minimum-idle")) {
+                    hikariDataSource.setMinimumIdle(poolSize); // Pool fixo, como recomendado pelo Hikari
+                }
+                if (!isBound(binder, "connection-timeout")) {
+                    Duration timeout = connectionTimeout.isZero()
+                            ? max(MIN_CONNECTION_TIMEOUT, expectedHoldTime.multipliedBy(Math.ceilDiv(requestThreads, poolSize)))
+                            : connectionTimeout;
+                    hikariDataSource.setConnectionTimeout(timeout.toMillis());
+                }
+                if (!isBound(binder, "leak-detection-threshold")) {
+                    Duration leakThreshold = leakDetectionThreshold.isZero()
+                            ? max(MIN_LEAK_DETECTION_THRESHOLD, expectedHoldTime.multipliedBy(LEAK_DETECTION_HOLD_MULTIPLIER))
+                            : leakDetectionThreshold;
+                    hikariDataSource.setLeakDetectionThreshold(leakThreshold.toMillis());
+                }
+
+                if (hikariDataSource.getPoolName() == null) {
+                    hikariDataSource.setPoolName(POOL_NAME);
+                }
+                if (hikariDataSource.getJdbcUrl() != null && hikariDataSource.getJdbcUrl().startsWith("jdbc:mysql:")) {
+                    mysqlProperties(preparedStatementCacheSize).forEach(hikariDataSource::addDataSourceProperty);
+                }
+                LOGGER.info("JDBC pool {} sized to {} connections (minimum idle {}, connection timeout {} ms, leak detection {} ms).",
+                        hikariDataSource.getPoolName(), poolSize, hikariDataSource.getMinimumIdle(),
+                        hikariDataSource.getConnectionTimeout(), hikariDataSource.getLeakDetectionThreshold());
+                return hikariDataSource;
+            }
+        };
+    }
+
+    private static boolean isBound(Binder binder, String hikariProperty) {
+        return binder.bind(HIKARI_PREFIX + hikariProperty, Bindable.of(String.class)).isBound();
+    }
+
+    private static Map<String, Object> mysqlProperties(int preparedStatementCacheSize) {
+        return Map.of(
+                "useServerPrepStmts", "true",
+                "cachePrepStmts", "true",
+                "prepStmtCacheSize", String.valueOf(preparedStatementCacheSize),
+                "prepStmtCacheSqlLimit", "2048",
+                "rewriteBatchedStatements", "true",
+                "cacheResultSetMetadata", "true",
+                "cacheServerConfiguration", "true",
+                "useLocalSessionState", "true",
+                "elideSetAutoCommits", "true",
+                "maintainTimeStats", "false"
+        );
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.jvlealc.securecapita.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.jvlealc.securecapita.datasource.ReplicaLagMonitor;
+import io.github.jvlealc.securecapita.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Roteamento leitura/escrita quando {@code application.datasource.replica.url} está definido.
+ * <p>
+ * Substitui o data source do Spring Boot por dois pools (primário com {@code spring.datasource.*}; réplica com a
+ * URL e, opcionalmente, as credenciais de {@code application.datasource.replica}) atrás de um
+ * {@link LazyConnectionDataSourceProxy}: transações {@code readOnly} vão para o {@link ReplicaRoutingDataSource}
+ * e todas as demais para o primário.
+ */
+@Configuration
+@ConditionalOnExpression("!'${application.datasource.replica.url:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+    private static final String REPLICA_POOL_NAME = "securecapita-replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${application.datasource.replica.url}") String url,
+            @Value("${application.datasource.replica.username:}") String username,
+            @Value("${application.datasource.replica.password:}") String password
+    ) {
+        HikariDataSource replica = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username.isBlank() ? properties.determineUsername() : username)
+                .password(username.isBlank() ? properties.determinePassword() : password)
+                .build();
+        replica.setPoolName(REPLICA_POOL_NAME);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+            @Value("${application.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${application.datasource.replica.max-lag:2s}") Duration maxLag,
+            @Value("${application.datasource.replica.lag-check-interval:1s}") Duration checkInterval,
+            MeterRegistry meterRegistry
+    ) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag, checkInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry
+    ) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new ReplicaRoutingDataSource(replica, primary, replicaLagMonitor, meterRegistry));
+        return routing;
+    }
+}
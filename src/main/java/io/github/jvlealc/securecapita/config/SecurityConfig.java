@@ -1,9 +1,16 @@
 package io.github.jvlealc.securecapita.config;
 
+import io.github.jvlealc.securecapita.security.crypto.AdaptiveBCryptPasswordEncoder;
+import io.github.jvlealc.securecapita.security.crypto.BCryptStrengthCalibrator;
+import io.github.jvlealc.securecapita.security.crypto.CostAwareDelegatingPasswordEncoder;
+import io.github.jvlealc.securecapita.security.crypto.OffloadingPasswordEncoder;
+import io.github.jvlealc.securecapita.security.crypto.PasswordHashingExecutor;
 import io.github.jvlealc.securecapita.security.filter.CustomAuthorizationFilter;
 import io.github.jvlealc.securecapita.security.handler.CustomAccessDeniedHandler;
 import io.github.jvlealc.securecapita.security.handler.CustomAuthenticationEntryPoint;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,8 +22,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -24,9 +31,14 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
+import static io.github.jvlealc.securecapita.security.authorization.PermissionAuthorizationManager.hasPermission;
+import static io.github.jvlealc.securecapita.security.model.Permission.DELETE_CUSTOMER;
+import static io.github.jvlealc.securecapita.security.model.Permission.DELETE_USER;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -37,7 +49,7 @@ public class SecurityConfig {
             "/users/login/**", "/users", "/users/verify/code/**", "/users/password-resets/**", "/users/verify/password/**",
             "/users/verify/account/**", "/users/refresh/token/**"
     };
-    private static final int PASSWORD_STRENGTH = 14;
+    private static final String PASSWORD_ENCODER_ID = "bcrypt";
     private static final List<String> ALLOWED_ORIGINS = List.of(
             "http://localhost:4200",
             "http://localhost:3000",
@@ -57,6 +69,7 @@ public class SecurityConfig {
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final CustomAuthorizationFilter customAuthorizationFilter;
 
     @Bean
@@ -71,8 +84,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorizationManagerRequest -> {
                     authorizationManagerRequest.requestMatchers(PUBLIC_URLS).permitAll();
                     authorizationManagerRequest.requestMatchers(HttpMethod.OPTIONS).permitAll();
-                    authorizationManagerRequest.requestMatchers(HttpMethod.DELETE, "/users/**").hasAuthority("DELETE:USER");
-                    authorizationManagerRequest.requestMatchers(HttpMethod.DELETE, "/customers/**").hasAuthority("DELETE:CUSTOMER");
+                    // Servidos apenas na porta de gerenciamento (management.server.port), fora do tráfego público.
+                    authorizationManagerRequest.requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll();
+                    authorizationManagerRequest.requestMatchers(HttpMethod.DELETE, "/users/**").access(hasPermission(DELETE_USER));
+                    authorizationManagerRequest.requestMatchers(HttpMethod.DELETE, "/customers/**").access(hasPermission(DELETE_CUSTOMER));
                     authorizationManagerRequest.anyRequest().authenticated();
                 })
                 .addFilterBefore(customAuthorizationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -80,15 +95,40 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Encoder delegante: novos hashes recebem o prefixo {@code {bcrypt}} e o custo fixado em
+     * {@code security.password.strength} ou, se ausente, calibrado na inicialização. Hashes legados (sem prefixo)
+     * continuam válidos; com ou sem prefixo, um hash só é regravado no próximo login bem-sucedido se o seu custo
+     * for menor que o atual ({@link CostAwareDelegatingPasswordEncoder}). Um novo algoritmo pode ser adotado
+     * apenas registrando-o aqui e trocando o id padrão, sem migração em massa.
+     * <p>
+     * O hashing é executado no {@link PasswordHashingExecutor}, nunca diretamente na thread de requisição.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(PASSWORD_STRENGTH);
+    public PasswordEncoder passwordEncoder(
+            PasswordHashingExecutor passwordHashingExecutor,
+            @Value("${security.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${security.password.min-strength:10}") int minStrength,
+            @Value("${security.password.max-strength:14}") int maxStrength,
+            @Value("${security.password.strength:0}") int fixedStrength
+    ) {
+        // Custo fixo: todos os nós do cluster produzem hashes com o mesmo custo
+        int strength = fixedStrength > 0
+                ? Math.max(fixedStrength, minStrength)
+                : BCryptStrengthCalibrator.calibrate(targetLatency, minStrength, maxStrength);
+        PasswordEncoder passwordEncoder = new CostAwareDelegatingPasswordEncoder(
+                PASSWORD_ENCODER_ID,
+                new AdaptiveBCryptPasswordEncoder(strength)
+        );
+        return new OffloadingPasswordEncoder(passwordEncoder, passwordHashingExecutor);
     }
 
     @Bean
-    public AuthenticationManager authenticationManager() throws Exception {
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) throws Exception {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
-        authenticationProvider.setPasswordEncoder(this.passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        // Rehash transparente após login bem-sucedido quando o hash armazenado está desatualizado
+        authenticationProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return new ProviderManager(authenticationProvider);
     }
 
@@ -0,0 +1,51 @@
+package io.github.jvlealc.securecapita.config;
+
+import io.github.jvlealc.securecapita.datasource.DataSources;
+import io.github.jvlealc.securecapita.datasource.StatementTracer;
+import io.github.jvlealc.securecapita.datasource.StatementTracingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Tracing de statements JDBC ({@code application.jdbc.tracing}), em substituição ao {@code spring.jpa.show-sql}:
+ * log apenas das queries lentas, com parâmetros redigidos, e tempos por formato de query no Micrometer.
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.jdbc.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementTracingConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementTracingConfig.class);
+
+    @Bean
+    public static BeanPostProcessor statementTracingDataSourcePostProcessor(
+            @Value("${application.jdbc.tracing.sample-rate:0.1}") double sampleRate,
+            @Value("${application.jdbc.tracing.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${application.jdbc.tracing.max-shapes:500}") int maxShapes,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementTracingDataSource)
+                        && DataSources.isPool(dataSource)) {
+                    LOGGER.info("Tracing JDBC statements (sample rate {}, slow threshold {} ms).", sampleRate, slowThreshold.toMillis());
+                    return new StatementTracingDataSource(
+                            dataSource,
+                            new StatementTracer(sampleRate, slowThreshold, maxShapes, meterRegistry::getObject)
+                    );
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.jvlealc.securecapita.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.jvlealc.securecapita.datasource.ConcurrencyLimitingDataSource;
+import io.github.jvlealc.securecapita.datasource.DataSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Modo de execução em threads virtuais ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Requisições (Tomcat) e tarefas {@code @Async} passam a rodar em threads virtuais; a concorrência de
+ * recursos escassos é limitada por semáforos: conexões JDBC aqui e conexões SMTP no {@code SmtpTransportPool}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)
+                        && DataSources.isPool(dataSource)) {
+                    HikariDataSource hikariDataSource = DataSources.unwrap(dataSource, HikariDataSource.class);
+                    int maxConnections = hikariDataSource.getMaximumPoolSize();
+                    LOGGER.info("Limiting concurrent JDBC connections to {} for virtual threads.", maxConnections);
+                    return new ConcurrencyLimitingDataSource(
+                            dataSource,
+                            maxConnections,
+                            Duration.ofMillis(hikariDataSource.getConnectionTimeout()),
+                            meterRegistry::getObject
+                    );
+                }
+                return bean;
+            }
+        };
+    }
+}
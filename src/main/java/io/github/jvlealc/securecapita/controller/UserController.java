@@ -1,28 +1,42 @@
 package io.github.jvlealc.securecapita.controller;
 
+import io.github.jvlealc.securecapita.audit.UserEventRecorder;
 import io.github.jvlealc.securecapita.controller.utils.UriGenerator;
 import io.github.jvlealc.securecapita.domain.User;
+import io.github.jvlealc.securecapita.domain.enums.EventType;
 import io.github.jvlealc.securecapita.dto.*;
 import io.github.jvlealc.securecapita.dto.*;
 import io.github.jvlealc.securecapita.dto.form.LoginFormDto;
 import io.github.jvlealc.securecapita.exception.JwtAuthenticationInvalidException;
 import io.github.jvlealc.securecapita.mapper.UserMapper;
+import io.github.jvlealc.securecapita.security.authorization.PermissionAuthorizationManager;
+import io.github.jvlealc.securecapita.security.cache.RoleRegistry;
 import io.github.jvlealc.securecapita.security.model.CustomUserDetails;
+import io.github.jvlealc.securecapita.security.model.Permission;
 import io.github.jvlealc.securecapita.security.provider.TokenProvider;
+import io.github.jvlealc.securecapita.security.ratelimit.AuthenticationRateLimiter;
+import io.github.jvlealc.securecapita.service.UserEventService;
 import io.github.jvlealc.securecapita.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.springframework.security.authentication.UsernamePasswordAuthenticationToken.unauthenticated;
@@ -40,6 +54,10 @@ public class UserController {
     private final UserMapper userMapper;
     private final AuthenticationManager authenticationManager;
     private final TokenProvider tokenProvider;
+    private final RoleRegistry roleRegistry;
+    private final UserEventRecorder userEventRecorder;
+    private final UserEventService userEventService;
+    private final AuthenticationRateLimiter authenticationRateLimiter;
 
     @PostMapping
     public ResponseEntity<ApiResponseDto> createUser(@RequestBody @Valid UserCreateRequestDto userRequestDto) {
@@ -57,10 +75,18 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponseDto> login(@RequestBody @Valid LoginFormDto loginForm) {
-        Authentication authentication = authenticationManager.authenticate(unauthenticated(loginForm.email(), loginForm.password()));
+    public ResponseEntity<ApiResponseDto> login(@RequestBody @Valid LoginFormDto loginForm, HttpServletRequest request) {
+        authenticationRateLimiter.check(AuthenticationRateLimiter.Scope.LOGIN, loginForm.email(), request);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(unauthenticated(loginForm.email(), loginForm.password()));
+        } catch (BadCredentialsException | AccountStatusException e) {
+            userService.recordLoginFailure(loginForm.email());
+            throw e;
+        }
         CustomUserDetails userPrincipal = (CustomUserDetails) authentication.getPrincipal();
         UserResponseDto userResponseDto = userMapper.toResponseDto(userPrincipal.getUser());
+        userEventRecorder.record(userResponseDto.id(), userResponseDto.usingMfa() ? EventType.LOGIN_ATTEMPT : EventType.LOGIN_ATTEMPT_SUCCESS);
         return userResponseDto.usingMfa()
                 ? this.sendVerificationMfaCode(userResponseDto)
                 : this.sendLoginSuccessResponse(userResponseDto, userPrincipal);
@@ -81,9 +107,10 @@ public class UserController {
     }
 
     @PostMapping("/verify/code")
-    public ResponseEntity<ApiResponseDto> verifyMfaCode(@RequestBody @Valid MfaVerificationRequestDto mfaVerificationRequestDto) {
+    public ResponseEntity<ApiResponseDto> verifyMfaCode(@RequestBody @Valid MfaVerificationRequestDto mfaVerificationRequestDto, HttpServletRequest request) {
+        authenticationRateLimiter.check(AuthenticationRateLimiter.Scope.MFA, mfaVerificationRequestDto.email(), request);
         User user = userService.verifyMfaCode(mfaVerificationRequestDto.email(), mfaVerificationRequestDto.code());
-        CustomUserDetails userPrincipal = new CustomUserDetails(user);
+        CustomUserDetails userPrincipal = new CustomUserDetails(user, roleRegistry.getAuthorities(user.getRole()));
         return ResponseEntity.ok(
                 ApiResponseDto.builder()
                         .timestamp(LocalDateTime.now().toString())
@@ -99,10 +126,41 @@ public class UserController {
         );
     }
 
+    /**
+     * Atividade recente do usuário, do evento mais recente para o mais antigo, paginada por cursor.
+     * Permitido ao próprio usuário ou a quem possui {@code UPDATE:USER}.
+     */
+    @GetMapping("/{id}/events")
+    public ResponseEntity<ApiResponseDto> getUserEvents(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Size must be at least 1.") @Max(value = 100, message = "Size must be at most 100.") int size,
+            Authentication authentication
+    ) {
+        if (!PermissionAuthorizationManager.isGranted(authentication, Permission.UPDATE_USER)
+                && !id.equals(userService.getUserDtoByEmail(authentication.getName()).id())) {
+            throw new AccessDeniedException("You do not have permission to view this user's activity.");
+        }
+        UserEventPageDto page = userEventService.getUserEvents(id, cursor, size);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("events", page.events());
+        data.put("next_cursor", page.nextCursor());
+        return ResponseEntity.ok(
+                ApiResponseDto.builder()
+                        .timestamp(LocalDateTime.now().toString())
+                        .data(data)
+                        .message("User events retrieved")
+                        .status(HttpStatus.OK)
+                        .statusCode(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
     // INÍCIO - Sistema de redefinição de senha para usuário não autenticado.
 
     @PostMapping("/password-resets/{email}")
-    public ResponseEntity<ApiResponseDto> resetPassword(@PathVariable @Email(message = "Invalid email.") String email) {
+    public ResponseEntity<ApiResponseDto> resetPassword(@PathVariable @Email(message = "Invalid email.") String email, HttpServletRequest request) {
+        authenticationRateLimiter.check(AuthenticationRateLimiter.Scope.PASSWORD_RESET, email, request);
         userService.resetPassword(email);
         return ResponseEntity.accepted().body(
                 ApiResponseDto.builder()
@@ -128,7 +186,14 @@ public class UserController {
         );
     }
 
-    @PostMapping("/password-resets/{key}")
+    /**
+     * Redefine a senha a partir da chave do link.
+     * <p>
+     * {@code POST /verify/password/{key}} é o caminho próprio do fluxo, ao lado do {@code GET} que valida a chave.
+     * {@code POST /password-resets/{key}}, que se distingue do pedido por email apenas pelo Content-Type, continua
+     * atendido para o cliente Angular atual e só deve ser removido depois que ele passar a usar o novo caminho.
+     */
+    @PostMapping(value = {"/verify/password/{key}", "/password-resets/{key}"}, consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ApiResponseDto> resetPasswordByKey(
             @PathVariable @NotBlank(message = "The key is required.") String key,
             @RequestBody @Valid ResetPasswordRequestDto resetPasswordRequestDto
@@ -168,7 +233,7 @@ public class UserController {
 
             String token = authHeader.substring(TOKEN_PREFIX.length());
             User user =  userService.getUserByEmail(tokenProvider.getSubject(token, request));
-            CustomUserDetails userPrincipal = new CustomUserDetails(user);
+            CustomUserDetails userPrincipal = new CustomUserDetails(user, roleRegistry.getAuthorities(user.getRole()));
 
             return ResponseEntity.ok(
                     ApiResponseDto.builder()
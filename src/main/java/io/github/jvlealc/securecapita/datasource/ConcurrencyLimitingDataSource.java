@@ -0,0 +1,120 @@
+package io.github.jvlealc.securecapita.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Limita o número de conexões emprestadas simultaneamente com um {@link Semaphore} justo.
+ * <p>
+ * Com threads virtuais a concorrência deixa de ser limitada pelo tamanho dos pools de threads; o semáforo,
+ * dimensionado com o tamanho do pool do Hikari, enfileira as threads excedentes de forma ordenada
+ * em vez de deixá-las competir dentro do pool. A permissão é devolvida no {@code close()} da conexão.
+ * A espera pela permissão é publicada em {@value #WAIT_METRIC}, já que nesse modo o timer de aquisição
+ * do Hikari não a inclui.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private static final String WAIT_METRIC = "jdbc.connections.permit.wait";
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private volatile Timer waitTimer;
+
+    public ConcurrencyLimitingDataSource(DataSource targetDataSource, int maxConcurrentConnections, Duration acquireTimeout, Supplier<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrentConnections, true);
+        this.acquireTimeout = acquireTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        this.acquirePermit();
+        try {
+            return this.releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        this.acquirePermit();
+        try {
+            return this.releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquirePermit() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            this.waitTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                throw new SQLTransientConnectionException(
+                        "Connection is not available, request timed out after " + acquireTimeout.toMillis() + "ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection.", e);
+        }
+    }
+
+    private Timer waitTimer() {
+        Timer timer = waitTimer;
+        if (timer == null) {
+            // Registrado no primeiro uso: o data source é criado antes do MeterRegistry.
+            timer = Timer.builder(WAIT_METRIC)
+                    .description("Time spent waiting for a JDBC connection permit")
+                    .register(meterRegistry.get());
+            waitTimer = timer;
+        }
+        return timer;
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        InvocationHandler handler = (proxy, method, args) -> this.invoke(connection, released, method, args);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler
+        );
+    }
+
+    private Object invoke(Connection connection, AtomicBoolean released, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        } finally {
+            if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
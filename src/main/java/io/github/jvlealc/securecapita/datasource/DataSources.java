@@ -0,0 +1,34 @@
+package io.github.jvlealc.securecapita.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Acesso ao pool por trás dos {@code DelegatingDataSource} da aplicação, para que os post-processors
+ * que os aplicam ({@link ConcurrencyLimitingDataSource}, {@link StatementTracingDataSource}) independam da ordem.
+ */
+public final class DataSources {
+
+    private DataSources() {
+    }
+
+    /**
+     * Se {@code dataSource} é um pool Hikari, possivelmente já envolvido pelos wrappers por pool.
+     * O roteador de réplica, que agrega dois pools, não é considerado um pool.
+     */
+    public static boolean isPool(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource
+                || dataSource instanceof StatementTracingDataSource
+                || dataSource instanceof ConcurrencyLimitingDataSource;
+    }
+
+    public static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.unwrap(type);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not unwrap " + type.getSimpleName() + ".", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.jvlealc.securecapita.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Leitura das próprias escritas quando há réplica ({@link ReplicaRoutingDataSource}).
+ * <p>
+ * Chaves escritas recentemente (ex.: email de um usuário recém-alterado) são lembradas por
+ * {@code read-your-writes-window}; leituras dessas chaves feitas por {@link #read(String, Supplier)} usam o
+ * primário mesmo em transações somente leitura. A janela deve exceder o {@code max-lag} da réplica.
+ * O registro é local ao nó: em outro nó a leitura pode atrasar no máximo {@code max-lag}.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(
+            @Value("${application.datasource.replica.read-your-writes-window:5s}") Duration window,
+            @Value("${application.datasource.replica.read-your-writes-maximum-keys:100000}") long maximumKeys
+    ) {
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWrite(String key) {
+        recentWrites.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Executa a leitura no primário se {@code key} foi escrita dentro da janela; caso contrário, sem restrição.
+     * A conexão é escolhida na primeira query, então a leitura deve abrir (ou ainda não ter usado) a transação.
+     */
+    public <T> T read(String key, Supplier<T> reader) {
+        if (recentWrites.getIfPresent(key) == null) {
+            return reader.get();
+        }
+        return readFromPrimary(reader);
+    }
+
+    /**
+     * Executa a leitura sempre no primário, como {@link #read(String, Supplier)} para uma chave escrita
+     * recentemente. Para leituras que decidem autenticação, que não podem aceitar o atraso da réplica.
+     */
+    public <T> T readFromPrimary(Supplier<T> reader) {
+        if (PINNED_TO_PRIMARY.get() != null) {
+            return reader.get();
+        }
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return reader.get();
+        } finally {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.jvlealc.securecapita.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta periodicamente o atraso de replicação e decide se a réplica pode atender leituras.
+ * <p>
+ * A réplica só é usada após uma verificação bem-sucedida com atraso até {@code max-lag}; replicação parada
+ * ({@code Seconds_Behind_Source} nulo), consulta sem linhas ou erro de conexão a tornam indisponível até a
+ * próxima verificação. As verificações rodam em uma thread própria, fora do scheduler compartilhado; ainda assim,
+ * se a última verificação bem-sucedida tiver mais de dois intervalos (consulta travada, thread atrasada), a
+ * decisão é considerada vencida e a réplica indisponível. O atraso é publicado em {@code datasource.replica.lag}
+ * e a decisão em {@code datasource.replica.available}.
+ */
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final long staleAfterNanos;
+    private final ScheduledExecutorService executor;
+    private volatile boolean available;
+    private volatile long lastCheckNanos;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.staleAfterNanos = checkInterval.multipliedBy(2).toNanos();
+        this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ReplicaLagMonitor-"));
+        this.executor.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag reported by the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.isAvailable() ? 1 : 0)
+                .description("Whether read-only transactions are being routed to the replica")
+                .register(meterRegistry);
+    }
+
+    void check() {
+        Long lag = null;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (resultSet.next()) {
+                lag = readLag(resultSet);
+            }
+        } catch (SQLException | RuntimeException e) {
+            this.update(null, "replica check failed: " + e.getMessage());
+            return;
+        }
+        this.update(lag, lag == null ? "replication is not running" : "lag of " + lag + "s exceeds " + maxLagSeconds + "s");
+    }
+
+    public boolean isAvailable() {
+        return available && System.nanoTime() - lastCheckNanos <= staleAfterNanos;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void update(Long lag, String unavailableReason) {
+        lagSeconds = lag == null ? Double.NaN : lag;
+        boolean nowAvailable = lag != null && lag <= maxLagSeconds;
+        if (nowAvailable != available) {
+            if (nowAvailable) {
+                LOGGER.info("Read replica available; routing read-only transactions to it.");
+            } else {
+                LOGGER.warn("Read replica unavailable ({}); routing reads to the primary.", unavailableReason);
+            }
+        }
+        lastCheckNanos = System.nanoTime();
+        available = nowAvailable;
+    }
+
+    private static Long readLag(ResultSet resultSet) throws SQLException {
+        for (String column : LAG_COLUMNS) {
+            try {
+                long lag = resultSet.getLong(column);
+                return resultSet.wasNull() ? null : lag;
+            } catch (SQLException e) {
+                // Coluna ausente nesta versão; tenta o nome seguinte.
+            }
+        }
+        throw new SQLException("Lag query returned none of the columns " + String.join(", ", LAG_COLUMNS) + ".");
+    }
+}
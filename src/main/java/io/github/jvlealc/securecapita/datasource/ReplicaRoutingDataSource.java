@@ -0,0 +1,80 @@
+package io.github.jvlealc.securecapita.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Origem das conexões de transações somente leitura: a réplica, salvo quando ela está atrasada ou
+ * indisponível ({@link ReplicaLagMonitor}), quando a leitura é de uma escrita recente ({@link ReadYourWrites})
+ * ou quando não entrega conexão; nesses casos, o primário.
+ * <p>
+ * Usado como {@code readOnlyDataSource} de um {@code LazyConnectionDataSourceProxy}, que só obtém a conexão
+ * na primeira query, depois de a transação ter sido marcada como somente leitura.
+ * Cada decisão é contada em {@code datasource.reads{target, reason}}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String METRIC_NAME = "datasource.reads";
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter replicaReads;
+    private final Counter readYourWritesReads;
+    private final Counter unavailableReads;
+    private final Counter failoverReads;
+
+    public ReplicaRoutingDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+        this.replicaReads = meterRegistry.counter(METRIC_NAME, "target", "replica", "reason", "replica");
+        this.readYourWritesReads = meterRegistry.counter(METRIC_NAME, "target", "primary", "reason", "read-your-writes");
+        this.unavailableReads = meterRegistry.counter(METRIC_NAME, "target", "primary", "reason", "replica-unavailable");
+        this.failoverReads = meterRegistry.counter(METRIC_NAME, "target", "primary", "reason", "replica-connection-failed");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return this.route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (ReadYourWrites.isPinnedToPrimary()) {
+            readYourWritesReads.increment();
+            return source.from(primary);
+        }
+        if (!lagMonitor.isAvailable()) {
+            unavailableReads.increment();
+            return source.from(primary);
+        }
+        try {
+            Connection connection = source.from(replica);
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            LOGGER.warn("Could not get a replica connection; reading from the primary.", e);
+            failoverReads.increment();
+            return source.from(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.jvlealc.securecapita.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Mede a execução de cada statement JDBC interceptado pelo {@link StatementTracingDataSource}.
+ * <p>
+ * Todo statement é cronometrado; os que excedem {@code slowThreshold} são registrados em log com o SQL
+ * normalizado e apenas os tipos dos parâmetros (os valores nunca são registrados). Uma amostra de
+ * {@code sampleRate} das execuções alimenta o timer {@value #METRIC_NAME}, agregado pelo "formato" da query:
+ * o SQL sem literais, com espaços colapsados e listas {@code IN (...)} reduzidas. O número de formatos
+ * distintos é limitado por {@code maxShapes}; os excedentes são agregados em {@value #OTHER_SHAPE}.
+ */
+public class StatementTracer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementTracer.class);
+
+    private static final String METRIC_NAME = "jdbc.statement";
+    private static final String OTHER_SHAPE = "other";
+    private static final int MAX_SHAPE_LENGTH = 256;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int maxShapes;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Cache<String, String> shapes = Caffeine.newBuilder().maximumSize(2048).build();
+    private final Set<String> registeredShapes = ConcurrentHashMap.newKeySet();
+
+    public StatementTracer(double sampleRate, Duration slowThreshold, int maxShapes, Supplier<MeterRegistry> meterRegistry) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxShapes = maxShapes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registra uma execução já medida.
+     *
+     * @param sql SQL do statement (com placeholders {@code ?})
+     * @param parameterTypes tipos dos parâmetros vinculados, na ordem dos índices; vazio para {@code Statement}
+     * @param failed se a execução lançou exceção
+     */
+    public void record(String sql, long elapsedNanos, List<String> parameterTypes, boolean failed) {
+        if (sql == null) {
+            return;
+        }
+        if (elapsedNanos >= slowThresholdNanos) {
+            LOGGER.warn("Slow SQL ({} ms{}): {} params={}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), failed ? ", failed" : "", this.shapeOf(sql), parameterTypes);
+        }
+        if (sampleRate > 0.0d && (sampleRate >= 1.0d || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            Timer.builder(METRIC_NAME)
+                    .description("Sampled JDBC statement execution time by query shape")
+                    .tag("shape", this.boundedShape(this.shapeOf(sql)))
+                    .tag("outcome", failed ? "error" : "success")
+                    .register(meterRegistry.get())
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String shapeOf(String sql) {
+        return shapes.get(sql, StatementTracer::normalize);
+    }
+
+    private String boundedShape(String shape) {
+        if (registeredShapes.contains(shape)) {
+            return shape;
+        }
+        if (registeredShapes.size() >= maxShapes) {
+            return OTHER_SHAPE;
+        }
+        registeredShapes.add(shape);
+        return shape;
+    }
+
+    private static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+        if (shape.length() <= MAX_SHAPE_LENGTH) {
+            return shape;
+        }
+        // Queries longas com o mesmo prefixo (ex.: SELECTs do Hibernate) são distinguidas pelo hash do formato completo.
+        return shape.substring(0, MAX_SHAPE_LENGTH - 9) + "~" + String.format("%08x", shape.hashCode());
+    }
+}
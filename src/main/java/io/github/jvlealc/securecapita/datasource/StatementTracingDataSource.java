@@ -0,0 +1,124 @@
+package io.github.jvlealc.securecapita.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Intercepta os statements criados pelas conexões do pool e reporta cada execução ao {@link StatementTracer}.
+ * <p>
+ * Conexões e statements são envolvidos por proxies dinâmicos (como no {@link ConcurrencyLimitingDataSource});
+ * dos parâmetros vinculados ({@code setXxx(índice, valor)}) guarda-se apenas o tipo, para o log de queries lentas.
+ */
+public class StatementTracingDataSource extends DelegatingDataSource {
+
+    private final StatementTracer tracer;
+
+    public StatementTracingDataSource(DataSource targetDataSource, StatementTracer tracer) {
+        super(targetDataSource);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.tracing(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return this.tracing(super.getConnection(username, password));
+    }
+
+    private Connection tracing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+                        return this.tracing(statement, method.getReturnType(), (String) args[0]);
+                    }
+                    if (result instanceof Statement statement) {
+                        return this.tracing(statement, Statement.class, null);
+                    }
+                    return result;
+                }
+        );
+    }
+
+    private Object tracing(Statement statement, Class<?> statementType, String preparedSql) {
+        Class<?> proxyType = CallableStatement.class.isAssignableFrom(statementType) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(statementType) ? PreparedStatement.class
+                : Statement.class;
+        TracedStatement traced = new TracedStatement(statement, preparedSql);
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{proxyType}, (proxy, method, args) -> traced.invoke(method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class TracedStatement {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private final List<String> parameterTypes = new ArrayList<>();
+        private String batchSql;
+
+        private TracedStatement(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        private Object invoke(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return this.execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                this.bind(index, "setNull".equals(name) ? "NULL" : args[1] == null ? "NULL" : args[1].getClass().getSimpleName());
+            } else if ("clearParameters".equals(name)) {
+                parameterTypes.clear();
+            } else if ("addBatch".equals(name) && args != null && args.length == 1 && args[0] instanceof String sql) {
+                batchSql = sql;
+            }
+            return StatementTracingDataSource.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String executed ? executed
+                    : preparedSql != null ? preparedSql
+                    : batchSql;
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = StatementTracingDataSource.invoke(statement, method, args);
+                failed = false;
+                return result;
+            } finally {
+                tracer.record(sql, System.nanoTime() - start, parameterTypes, failed);
+            }
+        }
+
+        private void bind(int index, String type) {
+            while (parameterTypes.size() < index) {
+                parameterTypes.add("?");
+            }
+            parameterTypes.set(index - 1, type);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
@@ -21,13 +22,22 @@ public class AccountVerification implements Serializable {
     @JoinColumn(name = "user_id", referencedColumnName = "id", unique = true, nullable = false)
     private User user;
 
-    @Column(unique = true, nullable = false)
-    private String url;
+    /**
+     * SHA-256 do token enviado no link; o token e a URL não são persistidos.
+     */
+    @Column(name = "token_hash", unique = true, nullable = false, length = 32, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    /**
+     * Nula enquanto a conta não é ativada; após a ativação, define quando a linha pode ser expurgada.
+     */
+    @Column(name = "expiration_date")
+    private LocalDateTime expirationDate;
 
     public AccountVerification() {}
 
-    public AccountVerification(User user, String url) {
-        this.url = url;
+    public AccountVerification(User user, byte[] tokenHash) {
+        this.tokenHash = tokenHash;
         this.user = user;
     }
 
@@ -47,12 +57,20 @@ public class AccountVerification implements Serializable {
         this.user = user;
     }
 
-    public String getUrl() {
-        return url;
+    public byte[] getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public LocalDateTime getExpirationDate() {
+        return expirationDate;
     }
 
-    public void setUrl(String url) {
-        this.url = url;
+    public void setExpirationDate(LocalDateTime expirationDate) {
+        this.expirationDate = expirationDate;
     }
 
     @Override
@@ -72,7 +90,8 @@ public class AccountVerification implements Serializable {
         return "AccountVerification{" +
                 "id=" + id +
                 ", userId=" + (user != null ? user.getId() : null) +
-                ", url='" + url + '\'' +
+                ", tokenHash='" + "[PROTECTED]" + '\'' +
+                ", expirationDate=" + expirationDate +
                 '}';
     }
 }
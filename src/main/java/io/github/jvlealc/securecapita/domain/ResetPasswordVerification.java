@@ -17,8 +17,11 @@ public class ResetPasswordVerification {
     @JoinColumn(name = "user_id", referencedColumnName = "id", unique = true, nullable = false)
     private User user;
 
-    @Column(unique = true, nullable = false)
-    private String url;
+    /**
+     * SHA-256 do token enviado no link; o token e a URL não são persistidos.
+     */
+    @Column(name = "token_hash", unique = true, nullable = false, length = 32, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
 
     @Column(name = "expiration_date", nullable = false)
     private LocalDateTime expirationDate;
@@ -28,9 +31,9 @@ public class ResetPasswordVerification {
     }
 
     // Construtor de conveniência
-    public ResetPasswordVerification(User user, String url, LocalDateTime expirationDate) {
+    public ResetPasswordVerification(User user, byte[] tokenHash, LocalDateTime expirationDate) {
         this.user = user;
-        this.url = url;
+        this.tokenHash = tokenHash;
         this.expirationDate = expirationDate;
     }
 
@@ -50,12 +53,12 @@ public class ResetPasswordVerification {
         this.user = user;
     }
 
-    public String getUrl() {
-        return url;
+    public byte[] getTokenHash() {
+        return tokenHash;
     }
 
-    public void setUrl(String url) {
-        this.url = url;
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public LocalDateTime getExpirationDate() {
@@ -83,7 +86,7 @@ public class ResetPasswordVerification {
         return "ResetPasswordVerification{" +
                 "id=" + id +
                 ", userId=" + (user != null ? user.getId() : "null") +
-                ", url='" + "[PROTECTED]" + '\'' +
+                ", tokenHash='" + "[PROTECTED]" + '\'' +
                 ", expirationDate=" + expirationDate +
                 '}';
     }
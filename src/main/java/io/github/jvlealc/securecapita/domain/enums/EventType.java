@@ -0,0 +1,26 @@
+package io.github.jvlealc.securecapita.domain.enums;
+
+/**
+ * Tipos do catálogo {@code events}, referenciados pela trilha de auditoria {@code user_events}.
+ */
+public enum EventType {
+    LOGIN_ATTEMPT("Login attempt pending MFA verification"),
+    LOGIN_ATTEMPT_FAILURE("Login attempt failed"),
+    LOGIN_ATTEMPT_SUCCESS("Login attempt successful"),
+    PROFILE_UPDATE("Profile information updated"),
+    PROFILE_PICTURE_UPDATE("Profile picture updated"),
+    ROLE_UPDATE("Role and permissions updated"),
+    ACCOUNT_SETTINGS_UPDATE("Account settings updated"),
+    PASSWORD_UPDATE("Password updated"),
+    MFA_UPDATE("MFA settings updated");
+
+    private final String description;
+
+    EventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
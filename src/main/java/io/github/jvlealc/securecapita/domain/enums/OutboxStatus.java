@@ -0,0 +1,8 @@
+package io.github.jvlealc.securecapita.domain.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,15 @@
+package io.github.jvlealc.securecapita.dto;
+
+import java.util.List;
+
+/**
+ * Página de eventos de auditoria.
+ *
+ * @param events eventos do mais recente para o mais antigo
+ * @param nextCursor cursor opaco da próxima página, {@code null} na última página
+ */
+public record UserEventPageDto(
+        List<UserEventResponseDto> events,
+        String nextCursor
+) {
+}
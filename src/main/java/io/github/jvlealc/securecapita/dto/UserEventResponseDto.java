@@ -0,0 +1,16 @@
+package io.github.jvlealc.securecapita.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserEventResponseDto(
+        Long id,
+        String type,
+        String description,
+        String device,
+        String ipAddress,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,11 @@
+package io.github.jvlealc.securecapita.exception;
+
+/**
+ * Cursor de paginação malformado ou adulterado.
+ */
+public class InvalidCursorException extends ApiException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
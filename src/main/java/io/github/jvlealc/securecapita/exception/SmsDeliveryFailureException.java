@@ -0,0 +1,23 @@
+package io.github.jvlealc.securecapita.exception;
+
+public class SmsDeliveryFailureException extends NotificationFailureException {
+
+    private final boolean retryable;
+
+    public SmsDeliveryFailureException(String message) {
+        super(message);
+        this.retryable = false;
+    }
+
+    public SmsDeliveryFailureException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    /**
+     * @return {@code true} se a falha for transitória (rede, limite de taxa, erro 5xx do provedor).
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.jvlealc.securecapita.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+/**
+ * Lançada quando um IP ou e-mail excede o limite de tentativas de autenticação.
+ * O cliente deve tentar novamente após {@link #getRetryAfter()}.
+ * */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyAttemptsException extends ApiException {
+
+    private final Duration retryAfter;
+
+    public TooManyAttemptsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
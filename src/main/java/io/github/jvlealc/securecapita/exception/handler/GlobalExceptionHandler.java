@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.*;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -176,11 +177,40 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return this.createProblemDetail(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_TITLE, request);
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handlePasswordHashingUnavailableException(final PasswordHashingUnavailableException ex, final HttpServletRequest request) {
+        log.warn("Password hashing capacity exhausted at URI [{}]", request.getRequestURI());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, ex.getRetryAfter().toSeconds())))
+                .body(this.createProblemDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), "Service Busy", request));
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<ProblemDetail> handleTooManyAttemptsException(final TooManyAttemptsException ex, final HttpServletRequest request) {
+        log.warn("Rate limit exceeded at URI [{}]", request.getRequestURI());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, ex.getRetryAfter().toSeconds())))
+                .body(this.createProblemDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), "Too Many Attempts", request));
+    }
+
     @ExceptionHandler(EmailAlreadyExistsException.class)
     public ProblemDetail handleEmailAlreadyExistsException(final EmailAlreadyExistsException ex, final HttpServletRequest request) {
         return this.createProblemDetail(HttpStatus.CONFLICT, ex.getMessage(), "Email Already Exists", request);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handleInvalidCursorException(final InvalidCursorException ex, final HttpServletRequest request) {
+        return this.createProblemDetail(HttpStatus.BAD_REQUEST, ex.getMessage(), "Invalid Cursor", request);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ProblemDetail handleAccessDeniedException(final AccessDeniedException ex, final HttpServletRequest request) {
+        log.warn("Access denied at URI [{}]: {}", request.getRequestURI(), ex.getMessage());
+        return this.createProblemDetail(HttpStatus.FORBIDDEN, ex.getMessage(), "Access Denied", request);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ProblemDetail handleResourceNotFoundException(final ResourceNotFoundException ex, final HttpServletRequest request) {
         return this.createProblemDetail(HttpStatus.NOT_FOUND, ex.getMessage(), "Resource Not Found", request);
@@ -0,0 +1,44 @@
+package io.github.jvlealc.securecapita.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Descarta o log de erro do Hibernate ({@value #SQL_EXCEPTION_HELPER}) para violações de constraints esperadas.
+ * <p>
+ * O Hibernate registra como ERROR toda {@code SQLException} antes de convertê-la, inclusive as violações que a
+ * aplicação trata como resultado normal (ex.: {@code uq_users_email} no cadastro, mapeada para 409). Apenas as
+ * mensagens que citam uma das constraints configuradas em {@code logback-spring.xml} são descartadas; as demais
+ * falhas de SQL continuam registradas.
+ */
+public class ExpectedConstraintViolationFilter extends TurboFilter {
+
+    private static final String SQL_EXCEPTION_HELPER = "org.hibernate.engine.jdbc.spi.SqlExceptionHelper";
+
+    private final List<String> constraints = new ArrayList<>();
+
+    public void addConstraint(String constraint) {
+        constraints.add(constraint.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level != Level.ERROR || !SQL_EXCEPTION_HELPER.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        String message = format.toLowerCase(Locale.ROOT);
+        for (String constraint : constraints) {
+            if (message.contains(constraint)) {
+                return FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
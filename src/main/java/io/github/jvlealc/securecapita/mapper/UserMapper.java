@@ -2,7 +2,9 @@ package io.github.jvlealc.securecapita.mapper;
 
 import io.github.jvlealc.securecapita.domain.User;
 import io.github.jvlealc.securecapita.dto.UserCreateRequestDto;
+import io.github.jvlealc.securecapita.dto.RoleDto;
 import io.github.jvlealc.securecapita.dto.UserResponseDto;
+import io.github.jvlealc.securecapita.security.model.UserSnapshot;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
@@ -38,6 +40,27 @@ public class UserMapper {
         );
     }
 
+    public UserResponseDto toResponseDto(UserSnapshot user) {
+        Objects.requireNonNull(user, "The UserSnapshot must not be null when convert to DTO.");
+        return new UserResponseDto(
+                user.id(),
+                user.firstName(),
+                user.lastName(),
+                user.email(),
+                user.phone(),
+                user.address(),
+                user.title(),
+                user.bio(),
+                user.enabled(),
+                user.nonLocked(),
+                user.usingMfa(),
+                user.mfaType(),
+                user.imageUrl(),
+                user.createdAt(),
+                new RoleDto(user.roleName(), user.rolePermission())
+        );
+    }
+
     public User toEntity(UserCreateRequestDto userCreateDto) {
         User user = new User();
         BeanUtils.copyProperties(userCreateDto, user);
@@ -0,0 +1,89 @@
+package io.github.jvlealc.securecapita.mfa;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@link MfaCodeStore} em memória para implantações com uma única instância.
+ * <p>
+ * Cada entrada é removida pelo cache após a sua validade mais um período de tolerância, durante o qual
+ * a verificação ainda reporta {@link MfaVerificationResult#EXPIRED} em vez de {@link MfaVerificationResult#NOT_FOUND}.
+ * A verificação usa {@code compute} do mapa, atômico por usuário.
+ */
+@Component
+@ConditionalOnProperty(name = "application.mfa.code-store", havingValue = "memory")
+public class InMemoryMfaCodeStore implements MfaCodeStore {
+
+    private static final String CACHE_NAME = "mfa.codes";
+
+    private final Cache<Long, PendingCode> codes;
+
+    public InMemoryMfaCodeStore(
+            @Value("${application.mfa.memory.maximum-size:100000}") long maximumSize,
+            @Value("${application.mfa.memory.expired-grace:5m}") Duration expiredGrace,
+            MeterRegistry meterRegistry
+    ) {
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PendingCodeExpiry(expiredGrace))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, codes, CACHE_NAME);
+    }
+
+    @Override
+    public void put(Long userId, String code, Duration ttl) {
+        codes.put(userId, new PendingCode(code.getBytes(StandardCharsets.UTF_8), Instant.now().plus(ttl)));
+    }
+
+    @Override
+    public MfaVerificationResult verifyAndRemove(Long userId, String code) {
+        byte[] candidate = code.getBytes(StandardCharsets.UTF_8);
+        MfaVerificationResult[] result = {MfaVerificationResult.NOT_FOUND};
+        codes.asMap().computeIfPresent(userId, (id, pending) -> {
+            if (pending.expiresAt().isBefore(Instant.now())) {
+                result[0] = MfaVerificationResult.EXPIRED;
+                return null;
+            }
+            if (!MessageDigest.isEqual(pending.code(), candidate)) {
+                result[0] = MfaVerificationResult.INVALID;
+                return pending;
+            }
+            result[0] = MfaVerificationResult.VALID;
+            return null;
+        });
+        return result[0];
+    }
+
+    private record PendingCode(byte[] code, Instant expiresAt) {
+    }
+
+    private record PendingCodeExpiry(Duration grace) implements Expiry<Long, PendingCode> {
+
+        @Override
+        public long expireAfterCreate(Long key, PendingCode value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.expiresAt()).plus(grace).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, PendingCode value, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, PendingCode value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.jvlealc.securecapita.mfa;
+
+import io.github.jvlealc.securecapita.domain.MfaVerification;
+import io.github.jvlealc.securecapita.repository.MfaVerificationJpaRepository;
+import io.github.jvlealc.securecapita.repository.UserJpaRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * {@link MfaCodeStore} persistido na tabela de verificações MFA, compartilhado entre instâncias.
+ * <p>
+ * O código válido é consumido por um {@code DELETE} condicional (usuário, código e validade),
+ * atômico no banco; a consulta de diagnóstico só ocorre quando nada é removido.
+ */
+@Component
+@ConditionalOnProperty(name = "application.mfa.code-store", havingValue = "jpa", matchIfMissing = true)
+public class JpaMfaCodeStore implements MfaCodeStore {
+
+    private final MfaVerificationJpaRepository mfaVerificationRepository;
+    private final UserJpaRepository userRepository;
+
+    public JpaMfaCodeStore(MfaVerificationJpaRepository mfaVerificationRepository, UserJpaRepository userRepository) {
+        this.mfaVerificationRepository = mfaVerificationRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    @Transactional
+    public void put(Long userId, String code, Duration ttl) {
+        LocalDateTime expirationDate = LocalDateTime.now().plus(ttl).truncatedTo(ChronoUnit.SECONDS);
+        mfaVerificationRepository.deleteByUserId(userId);
+        mfaVerificationRepository.save(new MfaVerification(userRepository.getReferenceById(userId), code, expirationDate));
+    }
+
+    @Override
+    @Transactional
+    public MfaVerificationResult verifyAndRemove(Long userId, String code) {
+        LocalDateTime now = LocalDateTime.now();
+        if (mfaVerificationRepository.deleteValidCode(userId, code, now) == 1) {
+            return MfaVerificationResult.VALID;
+        }
+        return mfaVerificationRepository.findByUserId(userId)
+                .map(mfaVerification -> {
+                    if (mfaVerification.getExpirationDate().isBefore(now)) {
+                        mfaVerificationRepository.delete(mfaVerification);
+                        return MfaVerificationResult.EXPIRED;
+                    }
+                    return MfaVerificationResult.INVALID;
+                })
+                .orElse(MfaVerificationResult.NOT_FOUND);
+    }
+}
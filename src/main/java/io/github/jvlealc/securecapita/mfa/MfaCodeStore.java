@@ -0,0 +1,38 @@
+package io.github.jvlealc.securecapita.mfa;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento dos códigos de autenticação multifator pendentes, um por usuário.
+ * <p>
+ * A implementação é escolhida por {@code application.mfa.code-store}: {@code memory} mantém os códigos
+ * no processo (instância única) e {@code jpa} usa a tabela de verificações (padrão, seguro com várias instâncias).
+ */
+public interface MfaCodeStore {
+
+    /**
+     * Armazena o código do usuário, substituindo um código pendente anterior.
+     *
+     * @param userId ID do usuário.
+     * @param code código enviado ao usuário.
+     * @param ttl validade do código.
+     */
+    void put(Long userId, String code, Duration ttl);
+
+    /**
+     * Compara e remove o código em uma única operação atômica: um código válido só pode ser consumido uma vez.
+     * Um código expirado também é removido; um código incorreto é mantido.
+     *
+     * @param userId ID do usuário.
+     * @param code código informado pelo usuário.
+     * @return resultado da verificação.
+     */
+    MfaVerificationResult verifyAndRemove(Long userId, String code);
+
+    enum MfaVerificationResult {
+        VALID,
+        INVALID,
+        EXPIRED,
+        NOT_FOUND
+    }
+}
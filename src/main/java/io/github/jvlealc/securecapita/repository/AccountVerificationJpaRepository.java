@@ -7,6 +7,6 @@ import java.util.Optional;
 
 public interface AccountVerificationJpaRepository extends JpaRepository<AccountVerification, Long> {
 
-    Optional<AccountVerification> findByUrl(String url);
+    Optional<AccountVerification> findByTokenHash(byte[] tokenHash);
     void deleteByUserId(Long userId);
 }
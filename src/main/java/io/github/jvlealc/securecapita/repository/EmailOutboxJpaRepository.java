@@ -0,0 +1,60 @@
+package io.github.jvlealc.securecapita.repository;
+
+import io.github.jvlealc.securecapita.domain.EmailOutboxMessage;
+import io.github.jvlealc.securecapita.domain.enums.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface EmailOutboxJpaRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Insere a mensagem ignorando duplicatas pela chave {@code dedupe_key}.
+     *
+     * @return 1 se inserida, 0 se já existia mensagem com a mesma chave
+     */
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO email_outbox (recipient, subject, body, dedupe_key, status, attempts, next_attempt_at, created_at)
+            VALUES (:recipient, :subject, :body, :dedupeKey, 'PENDING', 0, :now, :now)
+            """, nativeQuery = true)
+    int insertIgnoringDuplicates(
+            @Param("recipient") String recipient,
+            @Param("subject") String subject,
+            @Param("body") String body,
+            @Param("dedupeKey") String dedupeKey,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Seleciona e bloqueia mensagens prontas para envio. Linhas bloqueadas por outro nó são ignoradas,
+     * e mensagens em {@code SENDING} cujo lease expirou (nó reiniciado durante o envio) são retomadas.
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutboxMessage> findReadyForDispatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Marca as mensagens como enviadas e apaga o corpo, que contém os links de ativação e de redefinição
+     * de senha em texto puro.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutboxMessage m SET m.status = io.github.jvlealc.securecapita.domain.enums.OutboxStatus.SENT, m.sentAt = :sentAt, m.lastError = null, m.body = '' WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Query("SELECT MIN(m.createdAt) FROM EmailOutboxMessage m WHERE m.status IN :statuses")
+    Optional<LocalDateTime> findOldestCreatedAtByStatusIn(@Param("statuses") Collection<OutboxStatus> statuses);
+
+    long countByStatusIn(Collection<OutboxStatus> statuses);
+}
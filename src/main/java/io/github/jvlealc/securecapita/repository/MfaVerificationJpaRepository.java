@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface MfaVerificationJpaRepository extends JpaRepository<MfaVerification, Long> {
@@ -16,4 +17,8 @@ public interface MfaVerificationJpaRepository extends JpaRepository<MfaVerificat
 
     @Query("SELECT tfv FROM MfaVerification tfv WHERE tfv.user.id = :userId")
     Optional<MfaVerification> findByUserId(@Param("userId") Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM MfaVerification tfv WHERE tfv.user.id = :userId AND tfv.code = :code AND tfv.expirationDate >= :now")
+    int deleteValidCode(@Param("userId") Long userId, @Param("code") String code, @Param("now") LocalDateTime now);
 }
@@ -10,7 +10,7 @@ import java.util.Optional;
 
 public interface ResetPasswordVerificationJpaRepository extends JpaRepository<ResetPasswordVerification, Long> {
 
-    Optional<ResetPasswordVerification> findByUrl(String url);
+    Optional<ResetPasswordVerification> findByTokenHash(byte[] tokenHash);
 
     @Modifying(clearAutomatically = true)
     @Query("DELETE FROM ResetPasswordVerification rpv WHERE rpv.user.id = :userId")
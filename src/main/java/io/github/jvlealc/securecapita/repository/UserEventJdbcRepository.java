@@ -0,0 +1,64 @@
+package io.github.jvlealc.securecapita.repository;
+
+import io.github.jvlealc.securecapita.dto.UserEventResponseDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consulta da trilha {@code user_events} com paginação por keyset sobre o índice
+ * {@code idx_user_events_user_created (user_id, created_at, id)}.
+ * <p>
+ * Cada página começa imediatamente após a posição {@code (created_at, id)} da última linha da página anterior,
+ * então o custo é o de uma busca no índice mais {@code limit} linhas, independente da profundidade
+ * (sem {@code OFFSET}).
+ */
+@Repository
+public class UserEventJdbcRepository {
+
+    private static final String SELECT_EVENTS = """
+            SELECT ue.id, e.type, e.description, ue.device, ue.ip_address, ue.created_at
+            FROM user_events ue
+            JOIN events e ON e.id = ue.event_id
+            WHERE ue.user_id = ?
+            """;
+    private static final String AFTER_POSITION = """
+            AND (ue.created_at < ? OR (ue.created_at = ? AND ue.id < ?))
+            """;
+    private static final String ORDER_AND_LIMIT = """
+            ORDER BY ue.created_at DESC, ue.id DESC
+            LIMIT ?
+            """;
+
+    private static final RowMapper<UserEventResponseDto> ROW_MAPPER = (rs, rowNum) -> new UserEventResponseDto(
+            rs.getLong("id"),
+            rs.getString("type"),
+            rs.getString("description"),
+            rs.getString("device"),
+            rs.getString("ip_address"),
+            rs.getObject("created_at", LocalDateTime.class)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserEventJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Eventos mais recentes do usuário.
+     */
+    public List<UserEventResponseDto> findFirstPage(Long userId, int limit) {
+        return jdbcTemplate.query(SELECT_EVENTS + ORDER_AND_LIMIT, ROW_MAPPER, userId, limit);
+    }
+
+    /**
+     * Eventos do usuário anteriores à posição {@code (createdAt, id)}.
+     */
+    public List<UserEventResponseDto> findPageBefore(Long userId, LocalDateTime createdAt, Long id, int limit) {
+        return jdbcTemplate.query(SELECT_EVENTS + AFTER_POSITION + ORDER_AND_LIMIT, ROW_MAPPER, userId, createdAt, createdAt, id, limit);
+    }
+}
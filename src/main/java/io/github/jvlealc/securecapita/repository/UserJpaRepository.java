@@ -1,7 +1,11 @@
 package io.github.jvlealc.securecapita.repository;
 
 import io.github.jvlealc.securecapita.domain.User;
+import io.github.jvlealc.securecapita.security.model.UserSnapshot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -9,4 +13,21 @@ public interface UserJpaRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /**
+     * Projeção do usuário e seu papel em uma única consulta, sem entidades gerenciadas.
+     */
+    @Query("""
+            SELECT new io.github.jvlealc.securecapita.security.model.UserSnapshot(
+                u.id, u.firstName, u.lastName, u.email, u.password, u.phone, u.address, u.title, u.bio,
+                u.enabled, u.nonLocked, u.usingMfa, u.mfaType, u.imageUrl, u.createdAt,
+                r.id, r.name, r.permission)
+            FROM User u LEFT JOIN u.role r
+            WHERE u.email = :email
+            """)
+    Optional<UserSnapshot> findSnapshotByEmail(@Param("email") String email);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
 }
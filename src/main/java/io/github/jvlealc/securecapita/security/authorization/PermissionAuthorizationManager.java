@@ -0,0 +1,72 @@
+package io.github.jvlealc.securecapita.security.authorization;
+
+import io.github.jvlealc.securecapita.security.model.Permission;
+import io.github.jvlealc.securecapita.security.model.PermissionAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Exige uma {@link Permission}. Para autenticações vindas de token ({@link PermissionAuthenticationToken})
+ * a decisão é um teste de bit; para as demais, compara as authorities pelo nome.
+ */
+public final class PermissionAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final Permission permission;
+    private final AuthorizationDecision granted = new AuthorizationDecision(true);
+    private final AuthorizationDecision denied = new AuthorizationDecision(false);
+
+    private PermissionAuthorizationManager(Permission permission) {
+        this.permission = permission;
+    }
+
+    public static PermissionAuthorizationManager hasPermission(Permission permission) {
+        return new PermissionAuthorizationManager(permission);
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return isGranted(authentication.get(), permission) ? granted : denied;
+    }
+
+    /**
+     * @deprecated abstrato em {@link AuthorizationManager} até a remoção no Spring Security 7; use {@link #authorize}.
+     */
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return isGranted(authentication.get(), permission) ? granted : denied;
+    }
+
+    /**
+     * Mesma decisão de {@link #authorize}, para verificações feitas fora da cadeia de filtros (ex.: nos controllers).
+     */
+    public static boolean isGranted(Authentication authentication, Permission permission) {
+        if (authentication == null || !authentication.isAuthenticated() || TRUST_RESOLVER.isAnonymous(authentication)) {
+            return false;
+        }
+        if (authentication instanceof PermissionAuthenticationToken token) {
+            return token.hasPermission(permission);
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (permission.getAuthority().equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionAuthorizationManager[permission=" + permission + "]";
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.jvlealc.securecapita.security.cache;
+
+import io.github.jvlealc.securecapita.domain.Role;
+import io.github.jvlealc.securecapita.repository.RoleJpaRepository;
+import io.github.jvlealc.securecapita.security.model.Permission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Snapshot imutável em memória da tabela de papéis (roles) e suas permissões.
+ * <p>
+ * Cada papel é mapeado para uma lista de {@link GrantedAuthority} pré-construída, com instâncias compartilhadas
+ * entre papéis para a mesma permissão. O snapshot é substituído por inteiro (copy-on-write) em {@link #refresh()}:
+ * na inicialização, periodicamente e quando um papel desconhecido é solicitado. Leitores nunca observam um
+ * snapshot parcial.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleJpaRepository roleRepository;
+    private final Counter parseFallbackCounter;
+
+    private volatile Map<String, RoleEntry> roles = Map.of();
+
+    public RoleRegistry(RoleJpaRepository roleRepository, MeterRegistry meterRegistry) {
+        this.roleRepository = roleRepository;
+        this.parseFallbackCounter = Counter.builder("roles.registry.fallback")
+                .description("Principals whose authorities had to be parsed because the role snapshot was stale")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Recarrega todos os papéis do banco e publica o novo snapshot atomicamente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.roles.refresh-interval:10m}", initialDelayString = "${application.roles.refresh-interval:10m}")
+    public synchronized void refresh() {
+        Map<String, GrantedAuthority> internedAuthorities = new HashMap<>();
+        Map<String, RoleEntry> snapshot = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            List<GrantedAuthority> authorities = AuthorityUtils.commaSeparatedStringToAuthorityList(role.getPermission())
+                    .stream()
+                    .map(authority -> Permission.fromAuthority(authority.getAuthority())
+                            .map(Permission::getGrantedAuthority)
+                            .orElseGet(() -> internedAuthorities.computeIfAbsent(authority.getAuthority(), SimpleGrantedAuthority::new)))
+                    .toList();
+            authorities.stream()
+                    .filter(authority -> Permission.fromAuthority(authority.getAuthority()).isEmpty())
+                    .forEach(authority -> LOGGER.warn("Role {} grants unknown permission {}; it will not be carried in access tokens.",
+                            role.getName(), authority.getAuthority()));
+            snapshot.put(role.getName(), new RoleEntry(role.getId(), role.getName(), role.getPermission(), authorities));
+        }
+        this.roles = Map.copyOf(snapshot);
+        LOGGER.debug("Role registry refreshed with {} roles.", snapshot.size());
+    }
+
+    /**
+     * @param name nome do papel, ex.: {@code ROLE_USER}
+     * @return nova entidade {@link Role} desanexada (pode ser associada a um usuário sem consulta), se existir
+     */
+    public Optional<Role> findRole(String name) {
+        return this.findEntry(name).map(RoleEntry::toRole);
+    }
+
+    /**
+     * Authorities do papel. Usa a lista pré-construída quando o snapshot corresponde à permissão do papel
+     * informado; caso contrário, interpreta a permissão diretamente.
+     *
+     * @param role papel do usuário (pode ser {@code null})
+     * @return lista imutável de authorities
+     */
+    public List<GrantedAuthority> getAuthorities(Role role) {
+        if (role == null) {
+            return List.of();
+        }
+        RoleEntry entry = roles.get(role.getName());
+        if (entry != null && Objects.equals(entry.permission(), role.getPermission())) {
+            return entry.authorities();
+        }
+        parseFallbackCounter.increment();
+        return List.copyOf(AuthorityUtils.commaSeparatedStringToAuthorityList(role.getPermission()));
+    }
+
+    private Optional<RoleEntry> findEntry(String name) {
+        RoleEntry entry = roles.get(name);
+        if (entry == null) {
+            this.refresh();
+            entry = roles.get(name);
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    private record RoleEntry(Long id, String name, String permission, List<GrantedAuthority> authorities) {
+
+        Role toRole() {
+            Role role = new Role();
+            role.setId(id);
+            role.setName(name);
+            role.setPermission(permission);
+            return role;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.jvlealc.securecapita.security.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.github.jvlealc.securecapita.security.model.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Cache limitado (tamanho e TTL) de tokens de acesso já verificados.
+ * <p>
+ * A chave é o digest SHA-256 do token, nunca o token em si. Cada entrada expira no que ocorrer primeiro:
+ * o TTL configurado ou a claim {@code exp} do token. Estatísticas de hit/miss/eviction são publicadas
+ * no Micrometer com o nome {@value #CACHE_NAME}.
+ */
+@Component
+public class TokenAuthenticationCache {
+
+    private static final String CACHE_NAME = "jwt.authentication";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public TokenAuthenticationCache(
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+            @Value("${jwt.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Retorna o token verificado em cache ou executa a verificação e armazena o resultado.
+     * Falhas de verificação não são armazenadas.
+     *
+     * @param token token JWT (sem o prefixo "Bearer ")
+     * @param verifier função de verificação, chamada apenas em caso de miss
+     * @return {@link VerifiedToken} correspondente ao token
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return cache.get(this.digest(token), key -> verifier.apply(token));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private ByteBuffer digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(hash).asReadOnlyBuffer();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " not available.", e);
+        }
+    }
+
+    /**
+     * Expiração por entrada: mínimo entre o TTL configurado e o tempo restante até a claim {@code exp}.
+     */
+    private record TokenExpiry(Duration ttl) implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return ttl.toNanos();
+            }
+            long untilExpiration = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+            return Math.max(0L, Math.min(ttl.toNanos(), untilExpiration));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.jvlealc.securecapita.security.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.jvlealc.securecapita.datasource.ReadYourWrites;
+import io.github.jvlealc.securecapita.security.model.UserSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache limitado (tamanho e TTL) de usuários e seus papéis, chaveado pelo email em minúsculas.
+ * <p>
+ * O cache é local a cada nó e {@link #evict(String)} não invalida os demais: em outra instância uma entrada
+ * pode continuar refletindo o estado anterior a uma escrita por até {@code ttl} (mais o {@code max-lag} da
+ * réplica, se o carregamento veio dela). Por isso {@link #get} atende apenas leituras de exibição (perfil);
+ * decisões de autenticação (senha, conta habilitada/bloqueada, usuário removido) usam {@link #reload}, que
+ * sempre consulta o primário e renova a entrada.
+ * <p>
+ * Toda escrita em um usuário deve chamar {@link #evict(String)}: a entrada é removida imediatamente e, dentro
+ * de uma transação, novamente após a sua conclusão, para que uma leitura concorrente não recoloque no cache o
+ * estado anterior ao commit. A escrita também é registrada no {@link ReadYourWrites}: com réplica de leitura, o
+ * próximo carregamento do usuário neste nó vem do primário, e não de uma réplica que ainda não recebeu a alteração.
+ * Estatísticas são publicadas no Micrometer com o nome {@value #CACHE_NAME}, incluindo a taxa de acerto.
+ */
+@Component
+public class UserCache {
+
+    private static final String CACHE_NAME = "users";
+
+    private final Cache<String, UserSnapshot> cache;
+    private final ReadYourWrites readYourWrites;
+
+    public UserCache(
+            @Value("${application.cache.users.maximum-size:10000}") long maximumSize,
+            @Value("${application.cache.users.ttl:30s}") Duration ttl,
+            ReadYourWrites readYourWrites,
+            MeterRegistry meterRegistry
+    ) {
+        this.readYourWrites = readYourWrites;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Fraction of user lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna o usuário em cache ou o carrega com {@code loader}. Usuários inexistentes não são armazenados.
+     *
+     * @param email email do usuário (qualquer caixa)
+     * @param loader consulta de projeção ao banco, chamada apenas em caso de miss
+     * @return projeção imutável do usuário, se encontrado
+     */
+    public Optional<UserSnapshot> get(String email, Function<String, Optional<UserSnapshot>> loader) {
+        return Optional.ofNullable(cache.get(normalize(email), key -> readYourWrites.read(key, () -> loader.apply(email)).orElse(null)));
+    }
+
+    /**
+     * Carrega o usuário do primário, sem usar a entrada em cache, e a substitui pelo resultado
+     * (ou a remove, se o usuário não existir mais).
+     *
+     * @param email email do usuário (qualquer caixa)
+     * @param loader consulta de projeção ao banco, executada no primário
+     * @return projeção imutável do usuário, se encontrado
+     */
+    public Optional<UserSnapshot> reload(String email, Function<String, Optional<UserSnapshot>> loader) {
+        String key = normalize(email);
+        Optional<UserSnapshot> user = readYourWrites.readFromPrimary(() -> loader.apply(email));
+        user.ifPresentOrElse(snapshot -> cache.put(key, snapshot), () -> cache.invalidate(key));
+        return user;
+    }
+
+    /**
+     * Retorna o usuário somente se já estiver em cache, sem consultar o banco.
+     *
+     * @param email email do usuário (qualquer caixa)
+     */
+    public Optional<UserSnapshot> getIfPresent(String email) {
+        return email == null ? Optional.empty() : Optional.ofNullable(cache.getIfPresent(normalize(email)));
+    }
+
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        cache.invalidate(key);
+        readYourWrites.recordWrite(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(key);
+                    readYourWrites.recordWrite(key);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.jvlealc.securecapita.security.crypto;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Calibra o custo do BCrypt para a latência alvo no hardware corrente.
+ * <p>
+ * Mede o custo mínimo e extrapola (cada incremento de custo dobra o tempo de hash), escolhendo o maior
+ * custo dentro do intervalo permitido cuja estimativa não ultrapasse a latência alvo.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "Calibration#Sample1";
+    private static final int SAMPLES = 3;
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * @param targetLatency latência alvo por hash
+     * @param minStrength custo mínimo aceitável (piso de segurança)
+     * @param maxStrength custo máximo permitido
+     * @return custo calibrado, entre {@code minStrength} e {@code maxStrength}
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        if (minStrength > maxStrength) {
+            throw new IllegalArgumentException("The minimum BCrypt strength must not exceed the maximum strength.");
+        }
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode(SAMPLE_PASSWORD); // aquecimento (JIT)
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long estimatedNanos = bestNanos;
+        while (strength < maxStrength && estimatedNanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimatedNanos *= 2;
+        }
+        LOGGER.info("BCrypt strength calibrated to {} (~{} ms per hash, target {} ms).",
+                strength, Duration.ofNanos(estimatedNanos).toMillis(), targetLatency.toMillis());
+        return strength;
+    }
+}
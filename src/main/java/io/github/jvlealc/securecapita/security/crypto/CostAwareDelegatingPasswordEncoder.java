@@ -0,0 +1,34 @@
+package io.github.jvlealc.securecapita.security.crypto;
+
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * {@link DelegatingPasswordEncoder} sobre o {@link AdaptiveBCryptPasswordEncoder} que aplica a mesma regra de
+ * rehash a hashes com e sem prefixo de algoritmo.
+ * <p>
+ * O {@code DelegatingPasswordEncoder} considera desatualizado todo hash sem prefixo, o que regravaria hashes
+ * legados de custo maior com o custo atual. Aqui um hash legado (BCrypt sem {@code {id}}) só é regravado se o
+ * seu custo for menor que o atual; hashes com prefixo seguem a regra do encoder do seu id.
+ */
+public class CostAwareDelegatingPasswordEncoder extends DelegatingPasswordEncoder {
+
+    private static final String ID_PREFIX = "{";
+
+    private final AdaptiveBCryptPasswordEncoder legacyEncoder;
+
+    public CostAwareDelegatingPasswordEncoder(String idForEncode, AdaptiveBCryptPasswordEncoder bcryptEncoder) {
+        super(idForEncode, Map.of(idForEncode, bcryptEncoder));
+        this.legacyEncoder = bcryptEncoder;
+        this.setDefaultPasswordEncoderForMatches(bcryptEncoder);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String prefixEncodedPassword) {
+        if (prefixEncodedPassword != null && !prefixEncodedPassword.startsWith(ID_PREFIX)) {
+            return legacyEncoder.upgradeEncoding(prefixEncodedPassword);
+        }
+        return super.upgradeEncoding(prefixEncodedPassword);
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.jvlealc.securecapita.security.crypto;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Decorator que executa {@code encode} e {@code matches} no {@link PasswordHashingExecutor},
+ * fora das threads de requisição. {@code upgradeEncoding} é barato e roda na thread chamadora.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor hashingExecutor;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor hashingExecutor) {
+        this.delegate = delegate;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashingExecutor.execute(PasswordHashingExecutor.Operation.ENCODE, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashingExecutor.execute(PasswordHashingExecutor.Operation.MATCHES, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.jvlealc.securecapita.security.crypto;
+
+import io.github.jvlealc.securecapita.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Executor dedicado e limitado para operações de hashing de senha (CPU-bound).
+ * <p>
+ * Um número fixo de workers processa uma fila de capacidade limitada. Com a fila cheia a requisição
+ * falha imediatamente com {@link PasswordHashingUnavailableException} (HTTP 503 + Retry-After),
+ * evitando que uma rajada de logins esgote as threads de requisição dos demais endpoints.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private static final String METRIC_PREFIX = "password.hashing";
+    private static final String MESSAGE_UNAVAILABLE = "The server is busy. Please try again shortly.";
+
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Timer waitTimer;
+    private final Map<Operation, Timer> executionTimers = new EnumMap<>(Operation.class);
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(
+            @Value("${security.password.hashing.workers:0}") int workers,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.retry-after:2s}") Duration retryAfter,
+            MeterRegistry meterRegistry
+    ) {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors(); // 0 = um worker por núcleo
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("PasswordHashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfter = retryAfter;
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+                .description("Time spent by hashing tasks waiting in the queue")
+                .register(meterRegistry);
+        for (Operation operation : Operation.values()) {
+            executionTimers.put(operation, Timer.builder(METRIC_PREFIX + ".execution")
+                    .description("Time spent hashing or matching passwords")
+                    .tag("operation", operation.tagValue)
+                    .register(meterRegistry));
+        }
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.size", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting in the queue")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently hashing")
+                .register(meterRegistry);
+        LOGGER.info("Password hashing executor started with {} workers and queue capacity {}.", poolSize, queueCapacity);
+    }
+
+    /**
+     * Executa a tarefa em um worker de hashing e aguarda o resultado.
+     *
+     * @param operation tipo da operação, usado como tag da métrica de duração
+     * @param task operação de hashing ou comparação de senha
+     * @return resultado da tarefa
+     * @throws PasswordHashingUnavailableException se a fila estiver cheia
+     */
+    public <T> T execute(Operation operation, Supplier<T> task) {
+        Timer executionTimer = executionTimers.get(operation);
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return executionTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            LOGGER.warn("Password hashing queue is full; rejecting request.");
+            throw new PasswordHashingUnavailableException(MESSAGE_UNAVAILABLE, retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    public enum Operation {
+        ENCODE("encode"),
+        MATCHES("matches");
+
+        private final String tagValue;
+
+        Operation(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+}
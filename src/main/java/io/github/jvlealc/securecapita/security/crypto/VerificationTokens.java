@@ -0,0 +1,43 @@
+package io.github.jvlealc.securecapita.security.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Tokens opacos dos links de verificação (ativação de conta e redefinição de senha).
+ * <p>
+ * O token vai apenas no link enviado ao usuário; o banco guarda o SHA-256 dele (32 bytes), de modo que a
+ * verificação é uma busca pontual por chave curta e independente do host ou context path que gerou o link.
+ */
+public final class VerificationTokens {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private VerificationTokens() {
+    }
+
+    /**
+     * @return token aleatório de 256 bits em Base64 URL-safe, sem padding.
+     */
+    public static String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * @return SHA-256 do token, a chave persistida em {@code token_hash}.
+     */
+    public static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available.", e);
+        }
+    }
+}
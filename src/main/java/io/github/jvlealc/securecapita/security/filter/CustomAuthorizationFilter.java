@@ -1,5 +1,7 @@
 package io.github.jvlealc.securecapita.security.filter;
 
+import io.github.jvlealc.securecapita.security.cache.TokenAuthenticationCache;
+import io.github.jvlealc.securecapita.security.model.VerifiedToken;
 import io.github.jvlealc.securecapita.security.provider.TokenProvider;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,7 +11,6 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,13 +28,16 @@ public class CustomAuthorizationFilter extends OncePerRequestFilter {
     private static final List<String> PUBLIC_ROUTES = List.of("/users/login", "/users/verify/code", "/users/refresh/token");
 
     private final TokenProvider tokenProvider;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
     private final HandlerExceptionResolver resolver;
 
     public CustomAuthorizationFilter(
             TokenProvider tokenProvider,
+            TokenAuthenticationCache tokenAuthenticationCache,
             @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver
     ) {
         this.tokenProvider = tokenProvider;
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
         this.resolver = exceptionResolver;
     }
 
@@ -52,10 +56,10 @@ public class CustomAuthorizationFilter extends OncePerRequestFilter {
         try {
             String token = this.getToken(request);
             if (token != null && !token.isBlank()) {
-                String email = tokenProvider.getSubject(token, request);
-                if (email != null && !email.isBlank()) {
-                    List<GrantedAuthority> authorities = tokenProvider.getAuthorities(token);
-                    Authentication authentication = tokenProvider.getAuthentication(email, authorities, request);
+                // Consulta o cache antes de verificar assinatura e decodificar as claims
+                VerifiedToken verifiedToken = tokenAuthenticationCache.get(token, t -> tokenProvider.verifyToken(t, request));
+                if (verifiedToken.subject() != null && !verifiedToken.subject().isBlank()) {
+                    Authentication authentication = tokenProvider.getAuthentication(verifiedToken, request);
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
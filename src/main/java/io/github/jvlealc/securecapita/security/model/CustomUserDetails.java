@@ -6,6 +6,7 @@ import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.List;
 
 public class CustomUserDetails implements UserDetails {
 
@@ -18,6 +19,15 @@ public class CustomUserDetails implements UserDetails {
         this.authorities = AuthorityUtils.commaSeparatedStringToAuthorityList(permissions);
     }
 
+    /**
+     * @param user usuário autenticado
+     * @param authorities authorities já construídas (ex.: pelo {@link io.github.jvlealc.securecapita.security.cache.RoleRegistry})
+     */
+    public CustomUserDetails(User user, Collection<? extends GrantedAuthority> authorities) {
+        this.user = user;
+        this.authorities = authorities != null ? authorities : List.of();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return this.authorities;
@@ -0,0 +1,100 @@
+package io.github.jvlealc.securecapita.security.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Permissões conhecidas e suas posições na máscara de bits transportada na claim {@code perms} do token.
+ * <p>
+ * As posições são parte do formato do token: nunca reordene nem reutilize um bit já atribuído,
+ * apenas acrescente novas permissões com bits ainda livres.
+ */
+public enum Permission {
+    READ_USER("READ:USER", 0),
+    READ_CUSTOMER("READ:CUSTOMER", 1),
+    CREATE_USER("CREATE:USER", 2),
+    CREATE_CUSTOMER("CREATE:CUSTOMER", 3),
+    UPDATE_USER("UPDATE:USER", 4),
+    UPDATE_CUSTOMER("UPDATE:CUSTOMER", 5),
+    DELETE_USER("DELETE:USER", 6),
+    DELETE_CUSTOMER("DELETE:CUSTOMER", 7);
+
+    private static final Map<String, Permission> BY_AUTHORITY = new HashMap<>();
+    private static final Map<Long, List<GrantedAuthority>> AUTHORITIES_BY_MASK = new ConcurrentHashMap<>();
+
+    static {
+        for (Permission permission : values()) {
+            BY_AUTHORITY.put(permission.authority, permission);
+        }
+    }
+
+    private final String authority;
+    private final long mask;
+    private final GrantedAuthority grantedAuthority;
+
+    Permission(String authority, int bit) {
+        this.authority = authority;
+        this.mask = 1L << bit;
+        this.grantedAuthority = new SimpleGrantedAuthority(authority);
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    public long getMask() {
+        return mask;
+    }
+
+    public GrantedAuthority getGrantedAuthority() {
+        return grantedAuthority;
+    }
+
+    public boolean isGrantedBy(long permissions) {
+        return (permissions & mask) != 0;
+    }
+
+    public static Optional<Permission> fromAuthority(String authority) {
+        return Optional.ofNullable(BY_AUTHORITY.get(authority));
+    }
+
+    /**
+     * @param authorities authorities no formato {@code ACAO:RECURSO}; valores desconhecidos são ignorados
+     * @return máscara de bits correspondente
+     */
+    public static long encode(Collection<? extends GrantedAuthority> authorities) {
+        long permissions = 0L;
+        for (GrantedAuthority authority : authorities) {
+            Permission permission = BY_AUTHORITY.get(authority.getAuthority());
+            if (permission != null) {
+                permissions |= permission.mask;
+            }
+        }
+        return permissions;
+    }
+
+    public static long encode(String[] authorities) {
+        long permissions = 0L;
+        for (String authority : authorities) {
+            Permission permission = BY_AUTHORITY.get(authority);
+            if (permission != null) {
+                permissions |= permission.mask;
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * @param permissions máscara de bits
+     * @return lista imutável de authorities, compartilhada entre todas as chamadas com a mesma máscara
+     */
+    public static List<GrantedAuthority> toAuthorities(long permissions) {
+        return AUTHORITIES_BY_MASK.computeIfAbsent(permissions, mask -> Arrays.stream(values())
+                .filter(permission -> permission.isGrantedBy(mask))
+                .map(Permission::getGrantedAuthority)
+                .toList());
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.jvlealc.securecapita.security.model;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.io.Serial;
+
+/**
+ * Autenticação construída a partir de um token de acesso, com as permissões do usuário em uma máscara de bits
+ * para verificações de autorização por teste de bit.
+ */
+public class PermissionAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long permissions;
+
+    public PermissionAuthenticationToken(String email, long permissions) {
+        super(email, null, Permission.toAuthorities(permissions));
+        this.permissions = permissions;
+    }
+
+    public long getPermissions() {
+        return permissions;
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return permission.isGrantedBy(permissions);
+    }
+}
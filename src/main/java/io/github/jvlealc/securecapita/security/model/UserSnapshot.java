@@ -0,0 +1,69 @@
+package io.github.jvlealc.securecapita.security.model;
+
+import io.github.jvlealc.securecapita.domain.Role;
+import io.github.jvlealc.securecapita.domain.User;
+import io.github.jvlealc.securecapita.domain.enums.MfaType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção imutável de um {@link User} e seu {@link Role}, mantida no {@link io.github.jvlealc.securecapita.security.cache.UserCache}.
+ * <p>
+ * Construída diretamente pela consulta {@code UserJpaRepository#findSnapshotByEmail}, sem carregar a entidade
+ * no contexto de persistência. {@link #toUser()} cria sempre uma nova entidade desanexada, de modo que alterações feitas pelo chamador
+ * não afetam a entrada em cache.
+ */
+public record UserSnapshot(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        String password,
+        String phone,
+        String address,
+        String title,
+        String bio,
+        boolean enabled,
+        boolean nonLocked,
+        boolean usingMfa,
+        MfaType mfaType,
+        String imageUrl,
+        LocalDateTime createdAt,
+        Long roleId,
+        String roleName,
+        String rolePermission
+) {
+
+    public User toUser() {
+        Role role = null;
+        if (roleId != null) {
+            role = new Role();
+            role.setId(roleId);
+            role.setName(roleName);
+            role.setPermission(rolePermission);
+        }
+        return User.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .password(password)
+                .phone(phone)
+                .address(address)
+                .title(title)
+                .bio(bio)
+                .enabled(enabled)
+                .nonLocked(nonLocked)
+                .usingMfa(usingMfa)
+                .mfaType(mfaType)
+                .imageUrl(imageUrl)
+                .createdAt(createdAt)
+                .role(role)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "UserSnapshot{id=" + id + ", email='" + email + "', roleName='" + roleName + "'}";
+    }
+}
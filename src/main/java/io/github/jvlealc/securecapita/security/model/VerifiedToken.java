@@ -0,0 +1,27 @@
+package io.github.jvlealc.securecapita.security.model;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resultado de uma única verificação de token JWT: subject, permissões e expiração.
+ *
+ * @param subject email do usuário (subject do token)
+ * @param permissions máscara de bits de {@link Permission} (zero para refresh tokens)
+ * @param expiresAt instante de expiração do token
+ */
+public record VerifiedToken(
+        String subject,
+        long permissions,
+        Instant expiresAt
+) {
+
+    /**
+     * @return authorities correspondentes à máscara (lista compartilhada e imutável)
+     */
+    public List<GrantedAuthority> authorities() {
+        return Permission.toAuthorities(permissions);
+    }
+}
@@ -1,31 +1,35 @@
 package io.github.jvlealc.securecapita.security.provider;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.InvalidClaimException;
-import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import io.github.jvlealc.securecapita.exception.JwtAuthenticationInvalidException;
+import io.github.jvlealc.securecapita.security.cache.TokenAuthenticationCache;
 import io.github.jvlealc.securecapita.security.model.CustomUserDetails;
+import io.github.jvlealc.securecapita.security.model.Permission;
+import io.github.jvlealc.securecapita.security.model.PermissionAuthenticationToken;
+import io.github.jvlealc.securecapita.security.model.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.System.currentTimeMillis;
 
@@ -37,6 +41,7 @@ public class TokenProvider {
     private static final String ISSUER = "JV_LEAL_DEV";
     private static final String AUDIENCE = "SECURECAPITA_API";
     private static final String AUTHORITIES = "authorities";
+    private static final String PERMISSIONS = "perms";
     private static final long ACCESS_TOKEN_EXPIRATION_TIME_MILLIS = 1_800_000L; // 30 minutos
     private static final long REFRESH_TOKEN_EXPIRATION_TIME_MILLIS = 432_000_000L; // 5 dias
 
@@ -44,68 +49,125 @@ public class TokenProvider {
     private static final String MESSAGE_TOKEN_INVALID = "Invalid security token.";
     private static final String MESSAGE_TOKEN_ERROR = "Authentication failed. Please try again.";
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String METRIC_SIGN = "jwt.sign";
+    private static final String METRIC_VERIFY = "jwt.verify";
+
+    /**
+     * Algoritmo e verificador são construídos uma única vez, na inicialização.
+     */
+    private final SigningKey signingKey;
+
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+
+    /**
+     * Durante a migração para a claim {@code perms}, também emite a claim {@code authorities} (array de strings)
+     * para instâncias que ainda não a leem.
+     */
+    private final boolean legacyAuthoritiesClaim;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer signAccessTimer;
+    private final Timer signRefreshTimer;
+    private final Timer verifyValidTimer;
+
+    public TokenProvider(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.permissions.legacy-claim:false}") boolean legacyAuthoritiesClaim,
+            TokenAuthenticationCache tokenAuthenticationCache,
+            MeterRegistry meterRegistry
+    ) {
+        this.signingKey = SigningKey.of(secret);
+        this.legacyAuthoritiesClaim = legacyAuthoritiesClaim;
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
+        this.meterRegistry = meterRegistry;
+        this.signAccessTimer = Timer.builder(METRIC_SIGN)
+                .description("Time spent signing JWTs")
+                .tag("type", "access")
+                .register(meterRegistry);
+        this.signRefreshTimer = Timer.builder(METRIC_SIGN)
+                .description("Time spent signing JWTs")
+                .tag("type", "refresh")
+                .register(meterRegistry);
+        this.verifyValidTimer = this.verifyTimer("valid");
+    }
 
+    /**
+     * As permissões do usuário são gravadas como máscara de bits numérica na claim {@code perms} (ver {@link Permission}).
+     */
     public String createAccessToken(CustomUserDetails userPrincipal) {
-        return JWT.create()
+        long start = System.nanoTime();
+        JWTCreator.Builder builder = JWT.create()
                 .withIssuer(ISSUER)
                 .withAudience(AUDIENCE)
                 .withIssuedAt(Date.from(Instant.now()))
                 .withSubject(userPrincipal.getUsername())
-                .withArrayClaim(AUTHORITIES, this.getClaimsFromUser(userPrincipal))
+                .withClaim(PERMISSIONS, Permission.encode(userPrincipal.getAuthorities()));
+        if (legacyAuthoritiesClaim) {
+            builder.withArrayClaim(AUTHORITIES, this.getClaimsFromUser(userPrincipal));
+        }
+        String token = builder
                 .withExpiresAt(new Date(currentTimeMillis() + ACCESS_TOKEN_EXPIRATION_TIME_MILLIS))
-                .sign(Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8)));
+                .sign(signingKey.algorithm());
+        signAccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
 
     public String createRefreshToken(CustomUserDetails userPrincipal) {
-        return JWT.create()
+        long start = System.nanoTime();
+        String token = JWT.create()
                 .withIssuer(ISSUER)
                 .withAudience(AUDIENCE)
                 .withIssuedAt(Date.from(Instant.now()))
                 .withSubject(userPrincipal.getUsername())
                 .withExpiresAt(Date.from(Instant.now().plusMillis(REFRESH_TOKEN_EXPIRATION_TIME_MILLIS)))
-                .sign(Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8)));
+                .sign(signingKey.algorithm());
+        signRefreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
 
-    public String getSubject(String token, HttpServletRequest request) {
+    /**
+     * Verifica assinatura e claims do token uma única vez, retornando subject e permissões juntos.
+     * Tokens emitidos antes da claim {@code perms} têm as permissões lidas da claim {@code authorities}.
+     *
+     * @param token token JWT (sem o prefixo "Bearer ")
+     * @param request requisição corrente, usada para expor o motivo da falha
+     * @return {@link VerifiedToken} com subject, permissões e expiração
+     * @throws JwtAuthenticationInvalidException se o token estiver expirado, inválido ou não puder ser verificado
+     */
+    public VerifiedToken verifyToken(String token, HttpServletRequest request) {
+        long start = System.nanoTime();
         try {
-            return this.getJWTVerifier().verify(token).getSubject();
+            DecodedJWT decodedJWT = signingKey.verifier().verify(token);
+            VerifiedToken verifiedToken = new VerifiedToken(
+                    decodedJWT.getSubject(),
+                    this.getPermissions(decodedJWT),
+                    decodedJWT.getExpiresAtAsInstant()
+            );
+            verifyValidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return verifiedToken;
         } catch (TokenExpiredException e) {
+            this.verifyTimer("expired").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             request.setAttribute("expiredMessage", e.getMessage());
             throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_EXPIRED, e);
         } catch (InvalidClaimException e) {
+            this.verifyTimer("invalid").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             request.setAttribute("invalidClaim", e.getMessage());
             throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_INVALID, e);
         } catch (Exception e) {
+            this.verifyTimer("error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             LOGGER.error("Internal error verifying token subjects.", e);
             throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_ERROR, e);
         }
     }
 
-    public List<GrantedAuthority> getAuthorities(String token) {
-        return Arrays.stream(this.getClaimsFromToken(token))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-    }
-
-    public Authentication getAuthentication(String email, List<GrantedAuthority> authorities, HttpServletRequest request) {
-        UsernamePasswordAuthenticationToken usernamePasswordAuthToken = new UsernamePasswordAuthenticationToken(email, null, authorities);
-        usernamePasswordAuthToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-        return  usernamePasswordAuthToken;
+    public String getSubject(String token, HttpServletRequest request) {
+        return this.verifyToken(token, request).subject();
     }
 
-    @Deprecated(forRemoval = true)
-    public boolean isTokenValid(String email, String token) {
-       try {
-           if (StringUtils.isBlank(email)) {
-               return false;
-           }
-           return  !this.isTokenExpired(this.getJWTVerifier(), token);
-       } catch (JWTVerificationException e) {
-           LOGGER.debug("[isTokenValid] Token validation failed: {}", e.getMessage());
-           return false;
-       }
+    public Authentication getAuthentication(VerifiedToken verifiedToken, HttpServletRequest request) {
+        PermissionAuthenticationToken authentication = new PermissionAuthenticationToken(verifiedToken.subject(), verifiedToken.permissions());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        return authentication;
     }
 
     private String[] getClaimsFromUser(CustomUserDetails userPrincipal) {
@@ -115,26 +177,31 @@ public class TokenProvider {
                 .toArray(String[]::new);
     }
 
-    private String[] getClaimsFromToken(String token) {
-        try {
-            return this.getJWTVerifier().verify(token)
-                    .getClaim(AUTHORITIES)
-                    .asArray(String.class);
-        } catch (JWTVerificationException e) {
-            LOGGER.debug("[getClaimsFromToken] Token validation failed: {}", e.getMessage(), e);
-            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_INVALID, e);
-        }
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder(METRIC_VERIFY)
+                .description("Time spent verifying JWT signatures and claims")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
-    private JWTVerifier getJWTVerifier() {
-        return JWT.require(Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8)))
-                .withIssuer(ISSUER)
-                .build();
+    private long getPermissions(DecodedJWT decodedJWT) {
+        Claim permissions = decodedJWT.getClaim(PERMISSIONS);
+        if (!permissions.isMissing() && !permissions.isNull()) {
+            return permissions.asLong();
+        }
+        String[] authorities = decodedJWT.getClaim(AUTHORITIES).asArray(String.class); // tokens legados
+        return authorities != null ? Permission.encode(authorities) : 0L;
     }
 
-    @Deprecated(forRemoval = true)
-    private boolean isTokenExpired(JWTVerifier verifier, String token) {
-        Date expiration = verifier.verify(token).getExpiresAt();
-        return expiration.before(new Date());
+    /**
+     * Material de chave imutável: algoritmo HMAC512 e verificador (thread-safe) construídos uma vez por segredo.
+     */
+    private record SigningKey(Algorithm algorithm, JWTVerifier verifier) {
+
+        private static SigningKey of(String secret) {
+            Objects.requireNonNull(secret, "The JWT secret must not be null.");
+            Algorithm algorithm = Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8));
+            return new SigningKey(algorithm, JWT.require(algorithm).withIssuer(ISSUER).build());
+        }
     }
 }
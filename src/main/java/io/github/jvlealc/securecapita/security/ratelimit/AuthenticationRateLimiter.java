@@ -0,0 +1,98 @@
+package io.github.jvlealc.securecapita.security.ratelimit;
+
+import io.github.jvlealc.securecapita.exception.TooManyAttemptsException;
+import io.github.jvlealc.securecapita.security.web.ClientAddresses;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Limita tentativas nos endpoints de autenticação (login, código MFA e pedido de redefinição de senha),
+ * por IP e por e-mail, antes de qualquer hashing de senha, consulta ao banco ou envio de notificação.
+ * <p>
+ * Cada {@link Scope} tem dois {@link SlidingWindowRateLimiter}: o de IP é verificado primeiro, para que um
+ * atacante distribuído por e-mails não consuma a cota das vítimas sem antes esgotar a própria.
+ * Configuração em {@code security.rate-limit.<escopo>.{window,per-ip,per-email}}.
+ */
+@Component
+public class AuthenticationRateLimiter {
+
+    private static final String REJECTED_METRIC = "security.rate-limit.rejected";
+    private static final String MESSAGE = "Too many attempts. Please try again later.";
+
+    public enum Scope {
+        LOGIN("login", Duration.ofMinutes(1), 30, 10),
+        MFA("mfa", Duration.ofMinutes(5), 30, 5),
+        PASSWORD_RESET("password-reset", Duration.ofMinutes(15), 20, 3);
+
+        private final String property;
+        private final Duration defaultWindow;
+        private final int defaultPerIp;
+        private final int defaultPerEmail;
+
+        Scope(String property, Duration defaultWindow, int defaultPerIp, int defaultPerEmail) {
+            this.property = property;
+            this.defaultWindow = defaultWindow;
+            this.defaultPerIp = defaultPerIp;
+            this.defaultPerEmail = defaultPerEmail;
+        }
+    }
+
+    private record Limiters(SlidingWindowRateLimiter perIp, SlidingWindowRateLimiter perEmail, Counter ipRejections, Counter emailRejections) {
+    }
+
+    private final boolean enabled;
+    private final Map<Scope, Limiters> limiters = new EnumMap<>(Scope.class);
+
+    public AuthenticationRateLimiter(
+            @Value("${security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.rate-limit.maximum-keys:100000}") long maximumKeys,
+            Environment environment,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        for (Scope scope : Scope.values()) {
+            String prefix = "security.rate-limit." + scope.property + ".";
+            Duration window = environment.getProperty(prefix + "window", Duration.class, scope.defaultWindow);
+            limiters.put(scope, new Limiters(
+                    new SlidingWindowRateLimiter(window, environment.getProperty(prefix + "per-ip", Integer.class, scope.defaultPerIp), maximumKeys),
+                    new SlidingWindowRateLimiter(window, environment.getProperty(prefix + "per-email", Integer.class, scope.defaultPerEmail), maximumKeys),
+                    meterRegistry.counter(REJECTED_METRIC, "scope", scope.property, "key", "ip"),
+                    meterRegistry.counter(REJECTED_METRIC, "scope", scope.property, "key", "email")
+            ));
+        }
+    }
+
+    /**
+     * Consome uma tentativa do IP do cliente ({@link ClientAddresses}) e do e-mail informado.
+     *
+     * @throws TooManyAttemptsException se algum dos limites foi excedido.
+     */
+    public void check(Scope scope, String email, HttpServletRequest request) {
+        if (!enabled) {
+            return;
+        }
+        Limiters scoped = limiters.get(scope);
+        Duration retryAfter = scoped.perIp().tryAcquire(ClientAddresses.resolve(request));
+        if (!retryAfter.isZero()) {
+            scoped.ipRejections().increment();
+            throw new TooManyAttemptsException(MESSAGE, retryAfter);
+        }
+        if (email == null) {
+            return;
+        }
+        retryAfter = scoped.perEmail().tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        if (!retryAfter.isZero()) {
+            scoped.emailRejections().increment();
+            throw new TooManyAttemptsException(MESSAGE, retryAfter);
+        }
+    }
+}
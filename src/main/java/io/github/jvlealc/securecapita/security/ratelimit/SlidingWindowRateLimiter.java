@@ -0,0 +1,84 @@
+package io.github.jvlealc.securecapita.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Limitador por janela deslizante (contador ponderado entre a janela anterior e a atual), sem locks.
+ * <p>
+ * Cada chave guarda um estado imutável em um {@link AtomicReference}, atualizado por CAS; a estimativa é
+ * {@code anterior * (1 - decorrido / janela) + atual}. As chaves ficam em um cache Caffeine limitado,
+ * expirando após duas janelas sem acesso, o que mantém a memória estável sob varredura de IPs ou e-mails.
+ */
+public class SlidingWindowRateLimiter {
+
+    private final long windowNanos;
+    private final int limit;
+    private final Ticker ticker;
+    private final Cache<String, AtomicReference<Window>> windows;
+
+    public SlidingWindowRateLimiter(Duration window, int limit, long maximumKeys) {
+        this(window, limit, maximumKeys, Ticker.systemTicker());
+    }
+
+    SlidingWindowRateLimiter(Duration window, int limit, long maximumKeys, Ticker ticker) {
+        if (window.isNegative() || window.isZero() || limit < 1) {
+            throw new IllegalArgumentException("Rate limit window and limit must be positive.");
+        }
+        this.windowNanos = window.toNanos();
+        this.limit = limit;
+        this.ticker = ticker;
+        this.windows = Caffeine.newBuilder()
+                .ticker(ticker)
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+    }
+
+    /**
+     * Registra uma tentativa para a chave, se houver cota.
+     *
+     * @return {@link Duration#ZERO} se a tentativa foi aceita; caso contrário, o tempo sugerido até a próxima.
+     */
+    public Duration tryAcquire(String key) {
+        AtomicReference<Window> ref = windows.get(key, k -> new AtomicReference<>(new Window(this.windowStart(ticker.read()), 0, 0)));
+        while (true) {
+            long now = ticker.read();
+            Window current = ref.get();
+            Window rolled = current.rollTo(this.windowStart(now), windowNanos);
+            long elapsed = now - rolled.start();
+            double estimate = rolled.previous() * (1.0d - (double) elapsed / windowNanos) + rolled.current();
+            if (estimate >= limit) {
+                if (rolled != current) {
+                    ref.compareAndSet(current, rolled);
+                }
+                return Duration.ofNanos(Math.max(windowNanos - elapsed, 1L));
+            }
+            if (ref.compareAndSet(current, new Window(rolled.start(), rolled.previous(), rolled.current() + 1))) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private long windowStart(long now) {
+        return now - Math.floorMod(now, windowNanos);
+    }
+
+    private record Window(long start, int previous, int current) {
+
+        Window rollTo(long start, long windowNanos) {
+            if (start == this.start) {
+                return this;
+            }
+            return new Window(start, start - this.start == windowNanos ? this.current : 0, 0);
+        }
+    }
+}
@@ -2,30 +2,66 @@ package io.github.jvlealc.securecapita.security.service;
 
 import io.github.jvlealc.securecapita.domain.User;
 import io.github.jvlealc.securecapita.repository.UserJpaRepository;
+import io.github.jvlealc.securecapita.security.cache.RoleRegistry;
+import io.github.jvlealc.securecapita.security.cache.UserCache;
 import io.github.jvlealc.securecapita.security.model.CustomUserDetails;
+import io.github.jvlealc.securecapita.security.model.UserSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     private final UserJpaRepository userJpaRepository;
+    private final UserCache userCache;
+    private final RoleRegistry roleRegistry;
 
-    public CustomUserDetailsService(UserJpaRepository userJpaRepository) {
+    public CustomUserDetailsService(UserJpaRepository userJpaRepository, UserCache userCache, RoleRegistry roleRegistry) {
         this.userJpaRepository = userJpaRepository;
+        this.userCache = userCache;
+        this.roleRegistry = roleRegistry;
     }
 
     /**
+     * Sempre consulta o primário (via {@link UserCache#reload}): senha e estado da conta não podem vir do cache
+     * local, que não é invalidado por escritas feitas em outras instâncias.
+     *
      * @param username the username identifying the user whose data is required.
      * @return {@link CustomUserDetails}
      * @throws UsernameNotFoundException when no user with the specified username is found
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userJpaRepository.findByEmail(username)
+        User user = userCache.reload(username, userJpaRepository::findSnapshotByEmail)
+                .map(UserSnapshot::toUser)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
-        return new CustomUserDetails(user);
+        return new CustomUserDetails(user, roleRegistry.getAuthorities(user.getRole()));
+    }
+
+    /**
+     * Regrava o hash da senha após um login bem-sucedido cujo hash armazenado estava desatualizado
+     * (custo menor que o atual, com ou sem prefixo de algoritmo).
+     *
+     * @param user usuário autenticado
+     * @param newPassword novo hash, já codificado
+     * @return {@link CustomUserDetails} com o hash atualizado
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userJpaRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        userCache.evict(user.getUsername());
+        LOGGER.debug("Password hash upgraded for user: {}", user.getUsername());
+        User updatedUser = ((CustomUserDetails) user).getUser();
+        updatedUser.setPassword(newPassword);
+        return new CustomUserDetails(updatedUser, user.getAuthorities());
     }
 }
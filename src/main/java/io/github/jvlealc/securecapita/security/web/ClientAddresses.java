@@ -0,0 +1,24 @@
+package io.github.jvlealc.securecapita.security.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Ponto único de resolução do IP do cliente, usado pelo rate limit e pela auditoria.
+ * <p>
+ * Com {@code server.forward-headers-strategy=native}, o {@code RemoteIpValve} do Tomcat substitui o endereço
+ * remoto pelo primeiro IP não confiável de {@code X-Forwarded-For}, mas somente quando a conexão vem de um
+ * proxy em {@code server.tomcat.remoteip.internal-proxies}. Cabeçalhos enviados diretamente por clientes são
+ * ignorados, por isso o header nunca deve ser lido aqui.
+ */
+public final class ClientAddresses {
+
+    private ClientAddresses() {
+    }
+
+    /**
+     * @return IP do cliente, ou {@code null} fora de uma requisição.
+     */
+    public static String resolve(HttpServletRequest request) {
+        return request == null ? null : request.getRemoteAddr();
+    }
+}
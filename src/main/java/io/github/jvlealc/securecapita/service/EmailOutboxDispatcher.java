@@ -0,0 +1,217 @@
+package io.github.jvlealc.securecapita.service;
+
+import io.github.jvlealc.securecapita.domain.EmailOutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena a outbox de emails em lotes.
+ * <p>
+ * Cada lote é enviado no {@code emailExecutor} por conexões SMTP reutilizadas do {@link SmtpTransportPool}.
+ * O número de lotes simultâneos é limitado por {@code application.mail.max-concurrent-sends}.
+ * Além do polling, cada commit com mensagens novas agenda uma drenagem em uma thread própria, com fila de
+ * uma posição; commits próximos são agrupados em uma única drenagem pendente e, com ela ocupada, o aviso é
+ * descartado (o polling entrega a mensagem). A drenagem nunca roda na thread de quem fez o commit.
+ * Falhas são reagendadas com backoff pelo {@link EmailOutboxService}.
+ */
+@Component
+public class EmailOutboxDispatcher implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final String ENCODING = "UTF-8";
+
+    private final EmailOutboxService outboxService;
+    private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final Executor emailExecutor;
+    private final ThreadPoolExecutor nudgeExecutor;
+    private final AtomicBoolean nudgePending = new AtomicBoolean();
+    private final Semaphore mailTransportPermits;
+    private final int batchSize;
+    private final Counter sentCounter;
+    private final Counter sendErrorCounter;
+    private final Timer deliveryLagTimer;
+    private final Timer batchTimer;
+    private final AtomicLong undelivered = new AtomicLong();
+    private final AtomicLong oldestUndeliveredAgeSeconds = new AtomicLong();
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    public EmailOutboxDispatcher(
+            EmailOutboxService outboxService,
+            JavaMailSender mailSender,
+            SmtpTransportPool transportPool,
+            @Qualifier("emailExecutor") Executor emailExecutor,
+            @Value("${application.mail.max-concurrent-sends:10}") int maxConcurrentSends,
+            @Value("${application.mail.outbox.batch-size:50}") int batchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxService = outboxService;
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.emailExecutor = emailExecutor;
+        this.nudgeExecutor = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                new CustomizableThreadFactory("OutboxNudge-"),
+                new ThreadPoolExecutor.DiscardPolicy()
+        );
+        this.mailTransportPermits = new Semaphore(maxConcurrentSends);
+        this.batchSize = batchSize;
+        this.sentCounter = meterRegistry.counter("email.outbox.sent");
+        this.sendErrorCounter = meterRegistry.counter("email.outbox.send.errors");
+        this.deliveryLagTimer = Timer.builder("email.outbox.delivery.lag")
+                .description("Time between enqueueing and delivering an email")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("email.outbox.batch")
+                .description("Time to send one batch of outbox emails")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.undelivered", undelivered, AtomicLong::get)
+                .description("Emails waiting to be delivered")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.lag", oldestUndeliveredAgeSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest undelivered email")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.outbox.poll-interval:2s}")
+    public void dispatch() {
+        try {
+            while (mailTransportPermits.tryAcquire()) {
+                List<EmailOutboxMessage> batch;
+                try {
+                    batch = outboxService.claimBatch(batchSize);
+                } catch (RuntimeException e) {
+                    mailTransportPermits.release();
+                    throw e;
+                }
+                if (batch.isEmpty()) {
+                    mailTransportPermits.release();
+                    break;
+                }
+                this.submit(batch);
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            undelivered.set(outboxService.countUndelivered());
+            oldestUndeliveredAgeSeconds.set(outboxService.oldestUndeliveredAge().toSeconds());
+        } catch (RuntimeException e) {
+            LOGGER.error("Error while dispatching email outbox.", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageEnqueued(EmailOutboxService.MessageEnqueued event) {
+        if (!nudgePending.compareAndSet(false, true)) {
+            return;
+        }
+        // DiscardPolicy: com a fila cheia (ou no shutdown) o aviso é descartado em vez de rodar no chamador
+        nudgeExecutor.execute(() -> {
+            nudgePending.set(false);
+            this.dispatch();
+        });
+    }
+
+    @Override
+    public void destroy() {
+        nudgeExecutor.shutdownNow();
+    }
+
+    private void submit(List<EmailOutboxMessage> batch) {
+        try {
+            emailExecutor.execute(() -> {
+                try {
+                    this.sendBatch(batch);
+                } finally {
+                    mailTransportPermits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            mailTransportPermits.release();
+            LOGGER.warn("Email batch rejected by executor; it will be retried after the lease expires.", e);
+        }
+    }
+
+    private void sendBatch(List<EmailOutboxMessage> batch) {
+        Map<MimeMessage, EmailOutboxMessage> messages = new IdentityHashMap<>(batch.size());
+        for (EmailOutboxMessage outboxMessage : batch) {
+            try {
+                messages.put(this.toMimeMessage(outboxMessage), outboxMessage);
+            } catch (MessagingException e) {
+                this.fail(outboxMessage, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Map<MimeMessage, Exception> failedMessages;
+        try {
+            failedMessages = transportPool.send(messages.keySet());
+        } finally {
+            sample.stop(batchTimer);
+        }
+
+        List<Long> sentIds = new ArrayList<>(messages.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : messages.entrySet()) {
+            EmailOutboxMessage outboxMessage = entry.getValue();
+            Exception failure = failedMessages.get(entry.getKey());
+            if (failure != null) {
+                this.fail(outboxMessage, failure);
+            } else {
+                sentIds.add(outboxMessage.getId());
+                deliveryLagTimer.record(Duration.between(outboxMessage.getCreatedAt(), now));
+            }
+        }
+        outboxService.markSent(sentIds);
+        sentCounter.increment(sentIds.size());
+        LOGGER.info("Email batch dispatched: {} sent, {} failed.", sentIds.size(), messages.size() - sentIds.size());
+    }
+
+    private void fail(EmailOutboxMessage outboxMessage, Exception e) {
+        sendErrorCounter.increment();
+        outboxService.markFailed(outboxMessage.getId(), e.getMessage());
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage outboxMessage) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, ENCODING);
+        helper.setFrom(fromEmail);
+        helper.setTo(outboxMessage.getRecipient());
+        helper.setSubject(outboxMessage.getSubject());
+        helper.setText(outboxMessage.getBody(), true);
+        return mimeMessage;
+    }
+}
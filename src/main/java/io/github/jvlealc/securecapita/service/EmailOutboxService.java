@@ -0,0 +1,182 @@
+package io.github.jvlealc.securecapita.service;
+
+import io.github.jvlealc.securecapita.domain.EmailOutboxMessage;
+import io.github.jvlealc.securecapita.domain.enums.OutboxStatus;
+import io.github.jvlealc.securecapita.repository.EmailOutboxJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Outbox persistente de emails.
+ * <p>
+ * As mensagens são gravadas na tabela {@code email_outbox} dentro da transação de quem as enfileira
+ * (ex.: {@code UserService.createUser}), sobrevivendo a reinícios da JVM. O envio é feito em lotes
+ * pelo {@link EmailOutboxDispatcher}, que também é acionado logo após o commit de cada enfileiramento
+ * ({@link MessageEnqueued}) em vez de aguardar o próximo ciclo de polling.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * Publicado a cada mensagem gravada; entregue aos listeners transacionais após o commit.
+     */
+    public record MessageEnqueued() {
+    }
+
+    private final EmailOutboxJpaRepository outboxRepository;
+    private final Duration lease;
+    private final Duration dedupeWindow;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Counter deduplicatedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmailOutboxService(
+            EmailOutboxJpaRepository outboxRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${application.mail.outbox.lease:5m}") Duration lease,
+            @Value("${application.mail.outbox.dedupe-window:10m}") Duration dedupeWindow,
+            @Value("${application.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${application.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+            @Value("${application.mail.outbox.max-attempts:8}") int maxAttempts,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.lease = lease;
+        this.dedupeWindow = dedupeWindow;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.deduplicatedCounter = meterRegistry.counter("email.outbox.deduplicated");
+        this.retriedCounter = meterRegistry.counter("email.outbox.retried");
+        this.failedCounter = meterRegistry.counter("email.outbox.failed");
+    }
+
+    /**
+     * Enfileira um email na transação corrente. A mesma mensagem (destinatário, assunto e corpo) enfileirada
+     * mais de uma vez dentro da janela de deduplicação é gravada uma única vez.
+     *
+     * @param to Destinatário do email.
+     * @param subject Título do email.
+     * @param messageBody corpo HTML da mensagem.
+     */
+    @Transactional
+    public void enqueue(String to, String subject, String messageBody) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int inserted = outboxRepository.insertIgnoringDuplicates(to, subject, messageBody, this.dedupeKey(to, subject, messageBody, now), now);
+        if (inserted == 0) {
+            deduplicatedCounter.increment();
+            LOGGER.debug("Duplicate email to {} ignored. Subject: {}", to, subject);
+            return;
+        }
+        eventPublisher.publishEvent(new MessageEnqueued());
+    }
+
+    /**
+     * Reivindica um lote de mensagens prontas, marcando-as como {@code SENDING} até o fim do lease.
+     *
+     * @param limit tamanho máximo do lote
+     * @return mensagens reivindicadas (desanexadas ao fim da transação)
+     */
+    @Transactional
+    public List<EmailOutboxMessage> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> batch = outboxRepository.findReadyForDispatch(now, limit);
+        for (EmailOutboxMessage message : batch) {
+            message.setStatus(OutboxStatus.SENDING);
+            message.setNextAttemptAt(now.plus(lease));
+        }
+        return batch;
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.markSent(ids, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Registra falha no envio, reagendando com backoff exponencial ou marcando como {@code FAILED}
+     * após o número máximo de tentativas.
+     */
+    @Transactional
+    public void markFailed(Long id, String error) {
+        outboxRepository.findById(id).ifPresent(message -> {
+            int attempts = message.getAttempts() + 1;
+            message.setAttempts(attempts);
+            message.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (attempts >= maxAttempts) {
+                message.setStatus(OutboxStatus.FAILED);
+                message.setBody(""); // o link contido no corpo não será mais entregue
+                failedCounter.increment();
+                LOGGER.error("Email {} to {} failed permanently after {} attempts: {}", id, message.getRecipient(), attempts, error);
+                return;
+            }
+            message.setStatus(OutboxStatus.PENDING);
+            message.setNextAttemptAt(LocalDateTime.now().plus(this.backoff(attempts)));
+            retriedCounter.increment();
+            LOGGER.warn("Email {} to {} failed (attempt {}), retrying at {}: {}", id, message.getRecipient(), attempts, message.getNextAttemptAt(), error);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public long countUndelivered() {
+        return outboxRepository.countByStatusIn(List.of(OutboxStatus.PENDING, OutboxStatus.SENDING));
+    }
+
+    @Transactional(readOnly = true)
+    public Duration oldestUndeliveredAge() {
+        return outboxRepository.findOldestCreatedAtByStatusIn(List.of(OutboxStatus.PENDING, OutboxStatus.SENDING))
+                .map(createdAt -> Duration.between(createdAt, LocalDateTime.now()))
+                .orElse(Duration.ZERO);
+    }
+
+    private Duration backoff(int attempts) {
+        long multiplier = 1L << Math.min(attempts - 1, 20);
+        Duration backoff = initialBackoff.multipliedBy(multiplier);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private String dedupeKey(String to, String subject, String messageBody, LocalDateTime now) {
+        long window = now.toEpochSecond(ZoneOffset.UTC) / Math.max(1L, dedupeWindow.toSeconds());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(to.toLowerCase().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(subject.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(messageBody.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Long.toString(window).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available.", e);
+        }
+    }
+}
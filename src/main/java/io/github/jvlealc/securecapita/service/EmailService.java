@@ -1,21 +1,30 @@
 package io.github.jvlealc.securecapita.service;
 
-import io.github.jvlealc.securecapita.exception.EmailDeliveryFailureException;
-import jakarta.mail.internet.MimeMessage;
+import io.github.jvlealc.securecapita.template.EmailTemplate;
+import io.github.jvlealc.securecapita.template.EmailTemplateEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notificações por email. As mensagens são renderizadas a partir de templates pré-compilados
+ * ({@link EmailTemplateEngine}) e gravadas na outbox persistente
+ * ({@link EmailOutboxService}) dentro da transação do chamador; o envio SMTP é feito em lotes
+ * pelo {@link EmailOutboxDispatcher}.
+ * <p>
+ * As métricas {@code notification.submit}/{@code notification.submit.errors} (tag {@code channel=email}) medem o
+ * custo na thread da requisição; a entrega SMTP é medida por {@code email.outbox.*} e {@code smtp.*}.
+ */
 @Service("emailService")
 public class EmailService implements NotificationService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EmailService.class);
 
-    private static final String ENCODING = "UTF-8";
     private static final String GENERAL_SUBJECT = "SecureCapita - Notification";
     private static final String MFA_SUBJECT = "SecureCapita - Verification Code";
     private static final String RESET_PASSWORD_SUBJECT = "SecureCapita - Reset Password";
@@ -23,13 +32,22 @@ public class EmailService implements NotificationService {
     private static final String ACCOUNT_VERIFICATION_SUBJECT = "SecureCapita - Verify Your Account";
     private static final String ACCOUNT_VERIFIED_SUBJECT = "SecureCapita - Account Verified Successfully";
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplateEngine templateEngine;
+    private final Timer submitTimer;
+    private final Counter submitErrorCounter;
+
+    public EmailService(EmailOutboxService emailOutboxService, EmailTemplateEngine templateEngine, MeterRegistry meterRegistry) {
+        this.emailOutboxService = emailOutboxService;
+        this.templateEngine = templateEngine;
+        this.submitTimer = Timer.builder("notification.submit")
+                .description("Time spent queueing notifications on the request thread")
+                .tag("channel", "email")
+                .register(meterRegistry);
+        this.submitErrorCounter = Counter.builder("notification.submit.errors")
+                .description("Notifications that could not be queued")
+                .tag("channel", "email")
+                .register(meterRegistry);
     }
 
     /**
@@ -38,11 +56,10 @@ public class EmailService implements NotificationService {
      * @param to Destinatário do email.
      * @param message corpo da mensagem.
      */
-    @Async("emailExecutor")
     @Override
     public void sendMessage(String to, String message) {
         this.sendEmail(to, GENERAL_SUBJECT, message);
-        LOGGER.info("General email sent to: {}", to);
+        LOGGER.info("General email queued to: {}", to);
     }
 
     /**
@@ -52,12 +69,11 @@ public class EmailService implements NotificationService {
      * @param to Destinatário do email.
      * @param mfaCode Código de autenticação Multifator (Two-Factor Authentication).
      */
-    @Async("emailExecutor")
     @Override
     public void sendMfaCode(String userFirstName, String to, String mfaCode) {
-        String htmlBody = this.buildMfaEmailBody(userFirstName, mfaCode);
+        String htmlBody = templateEngine.render(EmailTemplate.MFA_CODE, userFirstName, mfaCode);
         this.sendEmail(to, MFA_SUBJECT, htmlBody);
-        LOGGER.info("Sent MFA Code sent to: {}", to);
+        LOGGER.info("MFA Code queued to: {}", to);
     }
 
     /**
@@ -67,12 +83,11 @@ public class EmailService implements NotificationService {
      * @param to Destinatário do email.
      * @param verificationUrl  URL de verificação para redefinir senha.
      */
-    @Async("emailExecutor")
     @Override
     public void sendResetPasswordUrl(String userFirstName, String to, String verificationUrl) {
-        String htmlBody = this.buildResetPasswordEmailBody(userFirstName, verificationUrl);
+        String htmlBody = templateEngine.render(EmailTemplate.RESET_PASSWORD, userFirstName, verificationUrl);
         this.sendEmail(to, RESET_PASSWORD_SUBJECT, htmlBody);
-        LOGGER.info("Reset Password URL sent to {}", to);
+        LOGGER.info("Reset Password URL queued to {}", to);
     }
 
     /**
@@ -81,12 +96,11 @@ public class EmailService implements NotificationService {
      * @param userFirstName Primeiro nome do usuário
      * @param to Destinatário do email.
      */
-    @Async("emailExecutor")
     @Override
     public void sendResetPasswordConfirmationMessage(String userFirstName, String to) {
-        String htmlBody = this.buildResetPasswordConfirmationBody(userFirstName);
+        String htmlBody = templateEngine.render(EmailTemplate.RESET_PASSWORD_CONFIRMATION, userFirstName);
         this.sendEmail(to, RESET_PASSWORD_CONFIRMATION_SUBJECT, htmlBody);
-        LOGGER.info("Reset Password Confirmation Message sent to: {}", to);
+        LOGGER.info("Reset Password Confirmation Message queued to: {}", to);
     }
 
     /**
@@ -96,12 +110,11 @@ public class EmailService implements NotificationService {
      * @param to Destinatário do email.
      * @param verificationUrl URL de ativação de conta.
      */
-    @Async("emailExecutor")
     @Override
     public void sendAccountVerificationUrl(String userFirstName, String to, String verificationUrl) {
-        String htmlBody = this.buildAccountVerificationBody(userFirstName, verificationUrl);
+        String htmlBody = templateEngine.render(EmailTemplate.ACCOUNT_VERIFICATION, userFirstName, verificationUrl);
         this.sendEmail(to, ACCOUNT_VERIFICATION_SUBJECT, htmlBody);
-        LOGGER.info("Account verification URL sent to: {}", to);
+        LOGGER.info("Account verification URL queued to: {}", to);
     }
 
     /**
@@ -110,167 +123,29 @@ public class EmailService implements NotificationService {
      * @param userFirstName Primeiro nome do usuário
      * @param to Destinatário do email
      */
-    @Async("emailExecutor")
     @Override
     public void sendAccountVerifiedMessage(String userFirstName, String to) {
-        String htmlBody = this.buildAccountVerifiedBody(userFirstName);
+        String htmlBody = templateEngine.render(EmailTemplate.ACCOUNT_VERIFIED, userFirstName);
         this.sendEmail(to, ACCOUNT_VERIFIED_SUBJECT, htmlBody);
-        LOGGER.info("Account Verified Message sent to: {}", to);
+        LOGGER.info("Account Verified Message queued to: {}", to);
     }
 
     /**
-     * Centralizar lógica de envio de emails.
+     * Centralizar lógica de envio de emails: grava a mensagem na outbox.
      *
      * @param to Destinatário do email.
      * @param subject Título do email.
      * @param messageBody corpo do texto ou HTML da mensagem.
-     * @throws EmailDeliveryFailureException caso ocorra falha no envio do email.
      * */
     private void sendEmail(String to, String subject, String messageBody) {
+        long start = System.nanoTime();
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, ENCODING);
-
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(messageBody, true);
-
-            mailSender.send(mimeMessage);
-        } catch (Exception e) {
-            LOGGER.error("Failed to send email to {}. Subject: {}", to, subject, e);
-            throw new EmailDeliveryFailureException("Error while sending email.", e);
+            emailOutboxService.enqueue(to, subject, messageBody);
+        } catch (RuntimeException e) {
+            submitErrorCounter.increment();
+            throw e;
+        } finally {
+            submitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
-
-    // Helpers
-    private String buildMfaEmailBody(String userFirstName, String mfaCode) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333;">
-                            <h1 style="color: #2c3e50;">SecureCapita</h1>
-                            <p>Hello, %s</p>
-                            <p>Here is your <strong>verification code</strong> to access your account:</p>
-                            <div style="margin: 20px 0; padding: 15px; background-color: #f4f4f4; border-radius: 5px; display: inline-block;">
-                                <span style="font-size: 24px; font-weight: bold; letter-spacing: 2px; color: #000;">%s</span>
-                            </div>
-                            <p>If you did not request this code, please ignore this email.</p>
-                        </body>
-                    </html>
-                """,
-                userFirstName, mfaCode
-        );
-    }
-
-    private String buildResetPasswordEmailBody(String userFirstName, String verificationUrl) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
-                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
-                                <h1 style="color: #2c3e50;">SecureCapita</h1>
-                                <p>Hello, <strong>%s</strong>,</p>
-                                <p>We received a request to reset your password. Click the button below to choose a new one:</p>
-                                <div style="text-align: center; margin: 30px 0;">
-                                    <a href="%s"
-                                       style="background-color: #3498db; color: white; padding: 12px 25px; text-decoration: none; border-radius: 5px; font-weight: bold; display: inline-block;">
-                                       Reset Password
-                                    </a>
-                                </div>
-                                <p>This link will expire in 10 minutes.</p>
-                                <p style="font-size: 12px; color: #7f8c8d;">
-                                    If the button doesn't work, copy and paste this URL into your browser:<br>
-                                    <a href="%s" style="color: #3498db;">%s</a>
-                                </p>
-                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
-                                <p style="font-size: 12px; color: #bdc3c7;">If you did not request this, you can safely ignore this email.</p>
-                            </div>
-                        </body>
-                    </html>
-                """,
-                userFirstName, verificationUrl, verificationUrl, verificationUrl
-        );
-    }
-
-    private String buildResetPasswordConfirmationBody(String userFirstName) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
-                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
-                                <h1 style="color: #2c3e50;">SecureCapita</h1>
-                                <p>Hello, <strong>%s</strong>,</p>
-                                <p>This is a confirmation that the password for your SecureCapita account has been successfully changed.</p>
-
-                                <div style="background-color: #f0fdf4; border-left: 4px solid #2ecc71; padding: 15px; margin: 20px 0;">
-                                    <p style="margin: 0; color: #27ae60;"><strong>✓ Success:</strong> Your account is secured with the new password.</p>
-                                </div>
-    
-                                <p>If you did not perform this action, please contact our support immediately to secure your account.</p>
-
-                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
-                                <p style="font-size: 12px; color: #bdc3c7;">SecureCapita Security Team</p>
-                            </div>
-                        </body>
-                    </html>
-                """,
-                userFirstName
-        );
-    }
-
-    private String buildAccountVerificationBody(String userFirstName, String verificationUrl) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
-                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
-                                <h1 style="color: #2c3e50;">SecureCapita</h1>
-                                <p>Hello, <strong>%s</strong>,</p>
-                                <p>Welcome to SecureCapita! To start using your account, please verify your email address by clicking the button below:</p>
-                                <div style="text-align: center; margin: 30px 0;">
-                                    <a href="%s"
-                                       style="background-color: #3498db; color: white; padding: 12px 25px; text-decoration: none; border-radius: 5px; font-weight: bold; display: inline-block;">
-                                       Verify Account
-                                    </a>
-                                </div>
-                                <p style="font-size: 12px; color: #7f8c8d;">
-                                    If the button doesn't work, copy and paste this URL into your browser:<br>
-                                    <a href="%s" style="color: #3498db;">%s</a>
-                                </p>
-                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
-                                <p style="font-size: 12px; color: #bdc3c7;">If you did not create an account, no further action is required.</p>
-                            </div>
-                        </body>
-                    </html>
-                """,
-                userFirstName, verificationUrl, verificationUrl, verificationUrl
-        );
-    }
-
-    private String buildAccountVerifiedBody(String userFirstName) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
-                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
-                                <h1 style="color: #2c3e50;">SecureCapita</h1>
-                                <p>Hello, <strong>%s</strong>,</p>
-                                <p>Great news! Your account has been successfully verified.</p>
-
-                                <div style="background-color: #f0fdf4; border-left: 4px solid #2ecc71; padding: 15px; margin: 20px 0;">
-                                    <p style="margin: 0; color: #27ae60;"><strong>✓ Account Activated:</strong> You can now log in and access all features.</p>
-                                </div>
-    
-                                <p>Thank you for joining SecureCapita.</p>
-
-                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
-                                <p style="font-size: 12px; color: #bdc3c7;">SecureCapita Team</p>
-                            </div>
-                        </body>
-                    </html>
-                """,
-                userFirstName
-        );
-    }
 }
@@ -1,23 +1,41 @@
 package io.github.jvlealc.securecapita.service;
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
-import org.springframework.beans.factory.annotation.Value;
+import io.github.jvlealc.securecapita.sms.SmsDispatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notificações por SMS. O envio é assíncrono: as mensagens são entregues ao {@link SmsDispatcher},
+ * que chama o provedor fora da thread da requisição.
+ * <p>
+ * {@code notification.submit}/{@code notification.submit.errors} (tag {@code channel=sms}) medem a submissão;
+ * a latência e as falhas do provedor são medidas por {@code sms.send} e {@code sms.send.errors}.
+ */
 @Deprecated(since = "1.1.0")
 @Service("smsService")
 public class SmsService implements NotificationService {
 
-    @Value("${FROM_NUMBER}")
-    private String fromNumber;
+    private static final String COUNTRY_CODE = "+55";
 
-    @Value("${TWILIO_ACCOUNT_SID}")
-    private String twilioAccountSid;
+    private final SmsDispatcher smsDispatcher;
+    private final Timer submitTimer;
+    private final Counter submitErrorCounter;
 
-    @Value("${TWILIO_AUTH_TOKEN}")
-    private String twilioAuthToken;
+    public SmsService(SmsDispatcher smsDispatcher, MeterRegistry meterRegistry) {
+        this.smsDispatcher = smsDispatcher;
+        this.submitTimer = Timer.builder("notification.submit")
+                .description("Time spent queueing notifications on the request thread")
+                .tag("channel", "sms")
+                .register(meterRegistry);
+        this.submitErrorCounter = Counter.builder("notification.submit.errors")
+                .description("Notifications that could not be queued")
+                .tag("channel", "sms")
+                .register(meterRegistry);
+    }
 
     /**
      * Enviar mensagem de notificações genéricas.
@@ -26,12 +44,7 @@ public class SmsService implements NotificationService {
      * @param message corpo da mensagem.
      */
     public void sendMessage(String to, String message) {
-        Twilio.init(twilioAccountSid, twilioAuthToken);
-        Message smsMessage = Message.creator(
-                new PhoneNumber("+55" + to),
-                new PhoneNumber("+55" + fromNumber),
-                message
-        ).create();
+        this.submit(to, message);
     }
 
     /**
@@ -43,13 +56,7 @@ public class SmsService implements NotificationService {
      */
     @Override
     public void sendMfaCode(String userFirstName, String to, String mfaCode) {
-        Twilio.init(twilioAccountSid, twilioAuthToken);
-        Message smsMessage = Message.creator(
-                new PhoneNumber("+55" + to),
-                new PhoneNumber("+55" + fromNumber),
-                mfaCode
-        ).create();
-        // TODO
+        this.submit(to, mfaCode);
     }
 
     /**
@@ -89,4 +96,16 @@ public class SmsService implements NotificationService {
     public void sendAccountVerifiedMessage(String userFirstName, String to) {
         //...
     }
+
+    private void submit(String to, String body) {
+        long start = System.nanoTime();
+        try {
+            smsDispatcher.submit(COUNTRY_CODE + to, body);
+        } catch (RuntimeException e) {
+            submitErrorCounter.increment();
+            throw e;
+        } finally {
+            submitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 }
@@ -0,0 +1,226 @@
+package io.github.jvlealc.securecapita.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de conexões SMTP keep-alive.
+ * <p>
+ * Evita o handshake TCP + TLS (STARTTLS) + AUTH a cada email: conexões autenticadas são reutilizadas
+ * para muitas mensagens, até {@code max-messages-per-connection} ou {@code idle-timeout}. O número de
+ * conexões simultâneas com o servidor SMTP configurado ({@code spring.mail.host}) é limitado por
+ * {@code application.mail.max-concurrent-sends}. Conexões que falham são descartadas e substituídas.
+ */
+@Component
+public class SmtpTransportPool implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private static final Duration VALIDATION_INTERVAL = Duration.ofSeconds(30);
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore connectionPermits;
+    private final Deque<PooledTransport> idleTransports = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final Duration acquireTimeout;
+    private final Duration idleTimeout;
+    private final int maxMessagesPerConnection;
+    private final Counter connectionsCreated;
+    private final Counter messagesSent;
+    private final Counter connectionFailures;
+    private final Counter connectionsClosed;
+    private final Timer sendTimer;
+
+    public SmtpTransportPool(
+            JavaMailSenderImpl mailSender,
+            @Value("${application.mail.max-concurrent-sends:10}") int maxConnections,
+            @Value("${application.mail.pool.acquire-timeout:30s}") Duration acquireTimeout,
+            @Value("${application.mail.pool.idle-timeout:60s}") Duration idleTimeout,
+            @Value("${application.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            MeterRegistry meterRegistry
+    ) {
+        this.mailSender = mailSender;
+        this.connectionPermits = new Semaphore(maxConnections, true);
+        this.acquireTimeout = acquireTimeout;
+        this.idleTimeout = idleTimeout;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.connectionsCreated = meterRegistry.counter("smtp.connections.created");
+        this.messagesSent = meterRegistry.counter("smtp.messages.sent");
+        this.connectionFailures = meterRegistry.counter("smtp.connections.failures");
+        this.connectionsClosed = meterRegistry.counter("smtp.connections.closed");
+        this.sendTimer = Timer.builder("smtp.send")
+                .description("Latency of a single message send over a pooled SMTP connection")
+                .register(meterRegistry);
+        Gauge.builder("smtp.connections.open", openConnections, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("smtp.connections.idle", idleTransports, Deque::size).register(meterRegistry);
+        Gauge.builder("smtp.connections.reuse.ratio", this, SmtpTransportPool::reuseRatio)
+                .description("Fraction of messages sent over an already open connection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envia as mensagens reutilizando conexões do pool. Se a conexão cair no meio do lote,
+     * ela é descartada e as mensagens restantes seguem por uma nova conexão.
+     *
+     * @param messages mensagens a enviar
+     * @return mensagens que falharam e a respectiva causa (vazio se todas foram enviadas)
+     */
+    public Map<MimeMessage, Exception> send(Collection<MimeMessage> messages) {
+        Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+        Iterator<MimeMessage> pending = messages.iterator();
+        while (pending.hasNext()) {
+            PooledTransport transport;
+            try {
+                transport = this.borrow();
+            } catch (MessagingException e) {
+                pending.forEachRemaining(message -> failures.put(message, e));
+                break;
+            }
+            boolean healthy = true;
+            while (healthy && pending.hasNext() && transport.messagesSent < maxMessagesPerConnection) {
+                MimeMessage message = pending.next();
+                long start = System.nanoTime();
+                try {
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new Date());
+                    }
+                    message.saveChanges();
+                    transport.transport.sendMessage(message, message.getAllRecipients());
+                    transport.messagesSent++;
+                    messagesSent.increment();
+                } catch (MessagingException e) {
+                    failures.put(message, e);
+                    healthy = transport.transport.isConnected();
+                } finally {
+                    sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+            this.release(transport, healthy);
+        }
+        return failures;
+    }
+
+    /**
+     * Fecha conexões ociosas há mais tempo que {@code idle-timeout}, antes que o servidor as derrube.
+     */
+    @Scheduled(fixedDelayString = "${application.mail.pool.eviction-interval:30s}")
+    public void evictIdleTransports() {
+        long now = System.nanoTime();
+        for (PooledTransport transport : idleTransports) {
+            if (now - transport.lastUsedNanos > idleTimeout.toNanos() && idleTransports.remove(transport)) {
+                this.close(transport);
+            }
+        }
+    }
+
+    public double reuseRatio() {
+        double sent = messagesSent.count();
+        return sent == 0 ? 0 : Math.max(0, 1 - connectionsCreated.count() / sent);
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            this.close(transport);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            if (!connectionPermits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection.", e);
+        }
+        try {
+            PooledTransport transport;
+            while ((transport = idleTransports.pollFirst()) != null) {
+                if (this.isUsable(transport)) {
+                    return transport;
+                }
+                this.close(transport);
+            }
+            return this.connect();
+        } catch (MessagingException | RuntimeException e) {
+            connectionPermits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport transport, boolean healthy) {
+        try {
+            if (healthy && transport.messagesSent < maxMessagesPerConnection) {
+                transport.lastUsedNanos = System.nanoTime();
+                idleTransports.offerFirst(transport);
+            } else {
+                if (!healthy) {
+                    connectionFailures.increment();
+                }
+                this.close(transport);
+            }
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    private boolean isUsable(PooledTransport transport) {
+        long idleNanos = System.nanoTime() - transport.lastUsedNanos;
+        if (idleNanos > idleTimeout.toNanos()) {
+            return false;
+        }
+        // isConnected() envia NOOP ao servidor; só valida conexões ociosas há algum tempo
+        return idleNanos < VALIDATION_INTERVAL.toNanos() || transport.transport.isConnected();
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        connectionsCreated.increment();
+        openConnections.incrementAndGet();
+        LOGGER.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport transport) {
+        openConnections.decrementAndGet();
+        connectionsClosed.increment();
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            LOGGER.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
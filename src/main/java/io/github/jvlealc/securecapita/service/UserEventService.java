@@ -0,0 +1,82 @@
+package io.github.jvlealc.securecapita.service;
+
+import io.github.jvlealc.securecapita.dto.UserEventPageDto;
+import io.github.jvlealc.securecapita.dto.UserEventResponseDto;
+import io.github.jvlealc.securecapita.exception.InvalidCursorException;
+import io.github.jvlealc.securecapita.repository.UserEventJdbcRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Leitura paginada da atividade do usuário ({@code user_events}).
+ * <p>
+ * O cursor é a posição {@code (created_at, id)} do último evento entregue, codificada em Base64 URL-safe.
+ * Ele é opaco para o cliente e continua válido com novos eventos sendo gravados, pois as páginas seguintes
+ * só retornam eventos mais antigos.
+ */
+@Service
+public class UserEventService {
+
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final String MESSAGE_INVALID_CURSOR = "Invalid pagination cursor.";
+
+    private final UserEventJdbcRepository userEventRepository;
+
+    public UserEventService(UserEventJdbcRepository userEventRepository) {
+        this.userEventRepository = userEventRepository;
+    }
+
+    /**
+     * @param userId id do usuário.
+     * @param cursor cursor retornado na página anterior, ou {@code null} para a primeira página.
+     * @param size quantidade máxima de eventos na página.
+     * @throws InvalidCursorException se o cursor estiver malformado.
+     */
+    @Transactional(readOnly = true)
+    public UserEventPageDto getUserEvents(Long userId, String cursor, int size) {
+        // Uma linha a mais indica se existe próxima página, sem COUNT.
+        List<UserEventResponseDto> events;
+        if (cursor == null || cursor.isBlank()) {
+            events = userEventRepository.findFirstPage(userId, size + 1);
+        } else {
+            Position position = decode(cursor);
+            events = userEventRepository.findPageBefore(userId, position.createdAt(), position.id(), size + 1);
+        }
+        if (events.size() <= size) {
+            return new UserEventPageDto(events, null);
+        }
+        List<UserEventResponseDto> page = events.subList(0, size);
+        UserEventResponseDto last = page.getLast();
+        return new UserEventPageDto(List.copyOf(page), encode(last.createdAt(), last.id()));
+    }
+
+    private static String encode(LocalDateTime createdAt, Long id) {
+        String position = createdAt + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException(MESSAGE_INVALID_CURSOR);
+            }
+            return new Position(
+                    LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(MESSAGE_INVALID_CURSOR);
+        }
+    }
+
+    private record Position(LocalDateTime createdAt, Long id) {
+    }
+}
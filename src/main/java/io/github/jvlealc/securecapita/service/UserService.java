@@ -1,7 +1,9 @@
 package io.github.jvlealc.securecapita.service;
 
+import io.github.jvlealc.securecapita.audit.UserEventRecorder;
 import io.github.jvlealc.securecapita.domain.*;
 import io.github.jvlealc.securecapita.domain.*;
+import io.github.jvlealc.securecapita.domain.enums.EventType;
 import io.github.jvlealc.securecapita.domain.enums.MfaType;
 import io.github.jvlealc.securecapita.domain.enums.VerificationType;
 import io.github.jvlealc.securecapita.dto.UserCreateRequestDto;
@@ -10,18 +12,27 @@ import io.github.jvlealc.securecapita.dto.UserUpdateRequestDto;
 import io.github.jvlealc.securecapita.exception.*;
 import io.github.jvlealc.securecapita.exception.*;
 import io.github.jvlealc.securecapita.mapper.UserMapper;
+import io.github.jvlealc.securecapita.mfa.MfaCodeStore;
 import io.github.jvlealc.securecapita.repository.*;
 import io.github.jvlealc.securecapita.repository.*;
+import io.github.jvlealc.securecapita.security.cache.RoleRegistry;
+import io.github.jvlealc.securecapita.security.cache.UserCache;
+import io.github.jvlealc.securecapita.security.crypto.VerificationTokens;
+import io.github.jvlealc.securecapita.security.model.UserSnapshot;
+import io.github.jvlealc.securecapita.sms.SmsDispatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.UUID;
+import java.util.Locale;
 
 import static io.github.jvlealc.securecapita.domain.enums.RoleType.ROLE_USER;
 
@@ -29,82 +40,135 @@ import static io.github.jvlealc.securecapita.domain.enums.RoleType.ROLE_USER;
 @Slf4j
 public class UserService {
 
+    private static final Duration MFA_CODE_TTL = Duration.ofDays(1);
+    private static final String USERS_EMAIL_CONSTRAINT = "uq_users_email";
+    /** Tempo em que o link de ativação já usado ainda responde "conta já ativada" antes de ser expurgado. */
+    private static final Duration ACTIVATED_LINK_RETENTION = Duration.ofDays(1);
+
     private final UserJpaRepository userRepository;
-    private final RoleJpaRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final AccountVerificationJpaRepository accountVerificationRepository;
-    private final MfaVerificationJpaRepository mfaVerificationRepository;
+    private final MfaCodeStore mfaCodeStore;
     private final ResetPasswordVerificationJpaRepository resetPasswordVerificationRepository;
     private final UserMapper userMapper;
+    private final UserCache userCache;
     private final PasswordEncoder encoder;
     private final NotificationService emailService;
     private final NotificationService smsService;
+    private final UserEventRecorder userEventRecorder;
+    private final TransactionTemplate transactionTemplate;
 
     public UserService(
             UserJpaRepository userRepository,
-            RoleJpaRepository roleRepository,
+            RoleRegistry roleRegistry,
             AccountVerificationJpaRepository accountVerificationRepository,
-            MfaVerificationJpaRepository mfaVerificationRepository,
+            MfaCodeStore mfaCodeStore,
             ResetPasswordVerificationJpaRepository resetPasswordVerificationRepository,
             UserMapper userMapper,
+            UserCache userCache,
             PasswordEncoder encoder,
             NotificationService emailService,
-            NotificationService smsService
+            NotificationService smsService,
+            UserEventRecorder userEventRecorder,
+            TransactionTemplate transactionTemplate
     ) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.accountVerificationRepository = accountVerificationRepository;
-        this.mfaVerificationRepository = mfaVerificationRepository;
+        this.mfaCodeStore = mfaCodeStore;
         this.resetPasswordVerificationRepository = resetPasswordVerificationRepository;
         this.userMapper = userMapper;
+        this.userCache = userCache;
         this.encoder = encoder;
         this.emailService = emailService;
         this.smsService = smsService;
+        this.userEventRecorder = userEventRecorder;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
+    /**
+     * Cadastra o usuário com uma transação curta e sem verificação prévia do email.
+     * <p>
+     * Hash da senha, papel, token e link são preparados antes da transação, que apenas insere o usuário,
+     * a verificação e o email na outbox. Emails repetidos, inclusive em cadastros simultâneos em instâncias
+     * diferentes, são recusados pela constraint {@value #USERS_EMAIL_CONSTRAINT} em um único round-trip;
+     * o envio é disparado após o commit.
+     *
+     * @throws EmailAlreadyExistsException se o email já estiver cadastrado.
+     */
     public UserResponseDto createUser(UserCreateRequestDto userCreateRequestDto) {
-        if(userRepository.existsByEmail(userCreateRequestDto.email())) {
-            throw new EmailAlreadyExistsException(userCreateRequestDto.email());
-        }
         String emailLower = userCreateRequestDto.email().toLowerCase();
         User user = userMapper.toEntity(userCreateRequestDto);
         user.setEmail(emailLower);
         user.setPassword(encoder.encode(user.getPassword()));
 
-        Role role = roleRepository.findByName(ROLE_USER.name())
+        Role role = roleRegistry.findRole(ROLE_USER.name())
                 .orElseThrow(() -> {
-                    log.warn("No role found with name: {}", user.getRole().getName());
-                    return new RoleNotFoundByNameException(user.getRole().getName());
+                    log.warn("No role found with name: {}", ROLE_USER.name());
+                    return new RoleNotFoundByNameException(ROLE_USER.name());
                 });
         user.setRole(role);
 
-        User createdUser = userRepository.save(user);
-
-        String verificationUrl = this.buildVerificationUrl(UUID.randomUUID().toString(), VerificationType.ACCOUNT.getType());
-        AccountVerification accountVerification = new AccountVerification(user, verificationUrl);
-        accountVerificationRepository.save(accountVerification);
-        emailService.sendAccountVerificationUrl(user.getFirstName(), user.getEmail(), verificationUrl);
+        String token = VerificationTokens.generate();
+        String verificationUrl = this.buildVerificationUrl(token, VerificationType.ACCOUNT.getType());
+        User createdUser;
+        try {
+            createdUser = transactionTemplate.execute(status -> {
+                User saved = userRepository.save(user);
+                accountVerificationRepository.save(new AccountVerification(saved, VerificationTokens.hash(token)));
+                userCache.evict(saved.getEmail());
+                emailService.sendAccountVerificationUrl(saved.getFirstName(), saved.getEmail(), verificationUrl);
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isUsersEmailViolation(e)) {
+                throw new EmailAlreadyExistsException(userCreateRequestDto.email());
+            }
+            throw e;
+        }
         return userMapper.toResponseDto(createdUser);
     }
 
-    @Transactional(readOnly = true)
+    private static boolean isUsersEmailViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(USERS_EMAIL_CONSTRAINT);
+    }
+
+    /**
+     * Busca o usuário pelo email, servido pelo {@link UserCache} quando possível.
+     *
+     * @param email email do usuário.
+     * @return dados públicos do usuário.
+     * @throws UserNotFoundByEmailException se o usuário não for encontrado.
+     */
     public UserResponseDto getUserDtoByEmail(String email) {
-        return userMapper.toResponseDto(
-                userRepository.findByEmail(email)
-                        .orElseThrow(() -> new UserNotFoundByEmailException(email))
-        );
+        return userMapper.toResponseDto(this.getUserSnapshotByEmail(email));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Busca o usuário pelo email no primário, sem usar o {@link UserCache}, para emitir novos tokens:
+     * um usuário removido em outra instância não pode continuar renovando o acesso até o cache expirar.
+     *
+     * @param email email do usuário.
+     * @return entidade desanexada; alterações nela não são persistidas.
+     * @throws UserNotFoundByEmailException se o usuário não for encontrado.
+     */
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                        .orElseThrow(() -> new UserNotFoundByEmailException(email));
+        return userCache.reload(email, userRepository::findSnapshotByEmail)
+                .map(UserSnapshot::toUser)
+                .orElseThrow(() -> new UserNotFoundByEmailException(email));
+    }
+
+    private UserSnapshot getUserSnapshotByEmail(String email) {
+        return userCache.get(email, userRepository::findSnapshotByEmail)
+                .orElseThrow(() -> new UserNotFoundByEmailException(email));
     }
 
     @Transactional
     public UserResponseDto updateUser(Long userId, UserUpdateRequestDto userUpdateRequestDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundByIdException(userId));
+        userCache.evict(user.getEmail());
 
         if (userUpdateRequestDto.firstName() != null) user.setFirstName(userUpdateRequestDto.firstName());
         if (userUpdateRequestDto.lastName() != null) user.setLastName(userUpdateRequestDto.lastName());
@@ -123,63 +187,89 @@ public class UserService {
 
                 user.setEmail(newEmailLower);
                 user.setEnabled(false);
-                String verificationUrl = this.buildVerificationUrl(UUID.randomUUID().toString(), VerificationType.ACCOUNT.getType());
+                userCache.evict(newEmailLower);
+                String token = VerificationTokens.generate();
                 accountVerificationRepository.deleteByUserId(user.getId());
-                accountVerificationRepository.save(new AccountVerification(user, verificationUrl));
-                emailService.sendAccountVerificationUrl(user.getFirstName(), user.getEmail(), verificationUrl);
+                accountVerificationRepository.save(new AccountVerification(user, VerificationTokens.hash(token)));
+                emailService.sendAccountVerificationUrl(user.getFirstName(), user.getEmail(), this.buildVerificationUrl(token, VerificationType.ACCOUNT.getType()));
             }
         }
 
-        return userMapper.toResponseDto(userRepository.save(user));
+        UserResponseDto updatedUser = userMapper.toResponseDto(userRepository.save(user));
+        userEventRecorder.record(user.getId(), EventType.PROFILE_UPDATE);
+        return updatedUser;
     }
 
     @Transactional
     public void deleteUserById(Long userId) {
-        if (userRepository.existsById(userId)){
-            throw new UserNotFoundByIdException(userId);
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundByIdException(userId));
+        userRepository.delete(user);
+        userCache.evict(user.getEmail());
     }
 
-    @Transactional
+    /**
+     * Gera e envia o código MFA. Com o {@link MfaCodeStore} em memória nenhuma consulta ao banco é feita.
+     *
+     * @param userResponseDto usuário autenticado que receberá o código.
+     */
     public void sendMfaCode(UserResponseDto userResponseDto) {
-        LocalDateTime expirationDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
         String code = RandomStringUtils.secure().nextAlphanumeric(8).toUpperCase();
-        mfaVerificationRepository.deleteByUserId(userResponseDto.id());
-        User user = userRepository.findById(userResponseDto.id())
-                .orElseThrow(() -> new UserNotFoundByIdException(userResponseDto.id()));
-        mfaVerificationRepository.save(new MfaVerification(user, code, expirationDate));
+        mfaCodeStore.put(userResponseDto.id(), code, MFA_CODE_TTL);
         if (userResponseDto.mfaType().equals(MfaType.SMS)) {
-            smsService.sendMfaCode(user.getFirstName(), user.getPhone(), code);
-            log.info("MFA code sent to phone: {}", user.getPhone());
+            smsService.sendMfaCode(userResponseDto.firstName(), userResponseDto.phone(), code);
+            log.info("MFA code queued for phone: {}", SmsDispatcher.mask(userResponseDto.phone()));
         } else {
-            emailService.sendMfaCode(user.getFirstName(), user.getEmail(), code);
-            log.info("MFA Code sent to email: {}", user.getEmail());
+            emailService.sendMfaCode(userResponseDto.firstName(), userResponseDto.email(), code);
+            log.info("MFA Code sent to email: {}", userResponseDto.email());
         }
     }
 
-    @Transactional
+    /**
+     * Verifica e consome o código MFA do usuário.
+     *
+     * @param email email do usuário.
+     * @param code código informado.
+     * @return o usuário autenticado.
+     * @throws MfaCodeInvalidException se o usuário ou o código não forem válidos.
+     * @throws MfaCodeExpiredException se o código estiver vencido.
+     */
     public User verifyMfaCode(String email, String code) {
-        try {
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new UserNotFoundByEmailException(email));
-            MfaVerification mfaVerification = mfaVerificationRepository.findByUserId(user.getId())
-                    .orElseThrow(() -> new MfaVerificationNotFoundByUserIdException("MFA code not found."));
-            if (!mfaVerification.getCode().equals(code)) {
-                throw new MfaCodeInvalidException("Invalid MFA code.");
+        User user = userCache.reload(email, userRepository::findSnapshotByEmail).map(UserSnapshot::toUser).orElse(null);
+        if (user == null) {
+            log.warn("Error while verifying MFA code: no user found with email {}", email);
+            throw new MfaCodeInvalidException("Invalid MFA code.");
+        }
+        MfaCodeStore.MfaVerificationResult result = mfaCodeStore.verifyAndRemove(user.getId(), code);
+        userEventRecorder.record(user.getId(), result == MfaCodeStore.MfaVerificationResult.VALID
+                ? EventType.LOGIN_ATTEMPT_SUCCESS
+                : EventType.LOGIN_ATTEMPT_FAILURE);
+        switch (result) {
+            case VALID -> {
+                return user;
             }
-            if (mfaVerification.getExpirationDate().isBefore(LocalDateTime.now())) {
-                mfaVerificationRepository.delete(mfaVerification);
-                throw new MfaCodeExpiredException("MFA code expired.");
+            case EXPIRED -> throw new MfaCodeExpiredException("MFA code expired.");
+            case NOT_FOUND -> {
+                log.warn("Error while verifying MFA code: no MFA code pending for user {}", user.getId());
+                throw new MfaCodeInvalidException("Invalid MFA code.");
             }
-            mfaVerificationRepository.delete(mfaVerification);
-            return user;
-        } catch (UserNotFoundByEmailException | MfaVerificationNotFoundByUserIdException ex) {
-            log.warn("Error while verifying MFA code {}", ex.getMessage(), ex);
-            throw new MfaCodeInvalidException("Invalid MFA code.");
+            default -> throw new MfaCodeInvalidException("Invalid MFA code.");
         }
     }
 
+    /**
+     * Registra uma tentativa de login com credenciais rejeitadas, caso o email pertença a um usuário.
+     * <p>
+     * Não consulta o banco: a autenticação que acabou de falhar recarregou o usuário no {@link UserCache},
+     * e emails inexistentes não geram evento.
+     *
+     * @param email email informado no login.
+     */
+    public void recordLoginFailure(String email) {
+        userCache.getIfPresent(email)
+                .ifPresent(snapshot -> userEventRecorder.record(snapshot.id(), EventType.LOGIN_ATTEMPT_FAILURE));
+    }
+
     /**
      * Inicia o processo de redefinição de senha.
      *
@@ -192,26 +282,26 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundByEmailException(email));
         resetPasswordVerificationRepository.deleteByUserId(user.getId());
         LocalDateTime expirationDate = LocalDateTime.now().plusMinutes(10).truncatedTo(ChronoUnit.SECONDS);
-        String verificationUrl = buildVerificationUrl(UUID.randomUUID().toString(), VerificationType.PASSWORD.getType());
-        resetPasswordVerificationRepository.save(new ResetPasswordVerification(user, verificationUrl, expirationDate));
-        emailService.sendResetPasswordUrl(user.getFirstName(), user.getEmail(), verificationUrl);
+        String token = VerificationTokens.generate();
+        resetPasswordVerificationRepository.save(new ResetPasswordVerification(user, VerificationTokens.hash(token), expirationDate));
+        emailService.sendResetPasswordUrl(user.getFirstName(), user.getEmail(), this.buildVerificationUrl(token, VerificationType.PASSWORD.getType()));
     }
 
 
     /**
      * Valida a chave de redefinição de senha.
      *
-     * @param key O token opaco (UUID) proveniente da URL de verificação
+     * @param key O token opaco proveniente da URL de verificação
      * @return UserResponseDto Os dados públicos do usuário
      * @throws ResetPasswordVerificationInvalidException Se a chave não existir ou já foi consumida
      * @throws ResetPasswordVerificationExpiredException Se a chave existir mas está vencida
      * */
-    @Transactional
+    @Transactional(readOnly = true)
     public UserResponseDto verifyResetPasswordKey(String key) {
-        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.findByUrl(this.buildVerificationUrl(key, VerificationType.PASSWORD.getType()))
+        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.findByTokenHash(VerificationTokens.hash(key))
                 .orElseThrow(() -> new ResetPasswordVerificationInvalidException("This reset link is invalid or has already been used."));
         if (resetPasswordVerification.getExpirationDate().isBefore(LocalDateTime.now())) {
-            resetPasswordVerificationRepository.delete(resetPasswordVerification);
+            // A linha vencida é removida pelo VerificationReaper; esta leitura pode ser servida pela réplica.
             throw new ResetPasswordVerificationExpiredException("The reset link has expired. Please request a new one.");
         }
         return userMapper.toResponseDto(resetPasswordVerification.getUser());
@@ -220,7 +310,7 @@ public class UserService {
     /**
      * Finaliza o processo de redefinição de senha, atualizando a senha do usuário e invalidando a chave de verificação.
      *
-     * @param key UUID/chave de verificação para validar a permissão.
+     * @param key token opaco de verificação para validar a permissão.
      * @param newPassword Nova senha bruta inserida pelo usuário.
      * @param confirmPassword Senha de confirmação para validação.
      * @throws PasswordMismatchException Se as senhas não coincidirem.
@@ -232,7 +322,7 @@ public class UserService {
         if (!newPassword.equals(confirmPassword)) {
             throw new PasswordMismatchException("Passwords do not match.");
         }
-        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.findByUrl(this.buildVerificationUrl(key, VerificationType.PASSWORD.getType()))
+        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.findByTokenHash(VerificationTokens.hash(key))
                 .orElseThrow(() -> new ResetPasswordVerificationInvalidException("This reset link is invalid or has already been used."));
         if (resetPasswordVerification.getExpirationDate().isBefore(LocalDateTime.now())) {
             resetPasswordVerificationRepository.delete(resetPasswordVerification);
@@ -241,31 +331,39 @@ public class UserService {
         User user = resetPasswordVerification.getUser();
         user.setPassword(encoder.encode(newPassword));
         userRepository.save(user);
+        userCache.evict(user.getEmail());
         resetPasswordVerificationRepository.delete(resetPasswordVerification);
+        userEventRecorder.record(user.getId(), EventType.PASSWORD_UPDATE);
         emailService.sendResetPasswordConfirmationMessage(user.getFirstName(), user.getEmail());
     }
 
     /**
      * Realiza a ativação da conta.
      *
-     * @param key UUID/chave presente na URL de verificação.
+     * @param key token opaco presente na URL de verificação.
      * @return true se a conta acabou de ser habilitava ou false se já estava habilitada.
      * @throws AccountVerificationNotFoundByUrl Se a URL de verificação não for encontrada.
      * */
     @Transactional
     public boolean activateAccount(String key) {
-        User user = accountVerificationRepository.findByUrl(this.buildVerificationUrl(key, VerificationType.ACCOUNT.getType()))
-                .orElseThrow(() -> new AccountVerificationNotFoundByUrl("This link is not valid."))
-                .getUser();
+        AccountVerification accountVerification = accountVerificationRepository.findByTokenHash(VerificationTokens.hash(key))
+                .orElseThrow(() -> new AccountVerificationNotFoundByUrl("This link is not valid."));
+        User user = accountVerification.getUser();
         if (!user.isEnabled()) {
             user.setEnabled(true);
             userRepository.save(user);
+            accountVerification.setExpirationDate(LocalDateTime.now().plus(ACTIVATED_LINK_RETENTION).truncatedTo(ChronoUnit.SECONDS));
+            accountVerificationRepository.save(accountVerification);
+            userCache.evict(user.getEmail());
             emailService.sendAccountVerifiedMessage(user.getFirstName(), user.getEmail());
             return true;
         }
         return false;
     }
 
+    /**
+     * Monta o link apenas no envio; a verificação busca pelo hash do token ({@link VerificationTokens}).
+     */
     private String buildVerificationUrl(String token, String type) {
         return ServletUriComponentsBuilder
                 .fromCurrentContextPath()
@@ -0,0 +1,180 @@
+package io.github.jvlealc.securecapita.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expurga periodicamente as linhas vencidas das tabelas de verificação (links de ativação já usados,
+ * links de redefinição de senha e códigos MFA), que antes só eram removidas quando o próprio usuário voltava,
+ * e as mensagens da outbox já concluídas ({@code SENT}/{@code FAILED}) há mais de {@code outbox.retention}.
+ * <p>
+ * A retenção da outbox nunca é menor que a {@code dedupe-window}: a chave de deduplicação inclui a janela de
+ * criação, então depois dela nenhuma nova mensagem pode colidir com a linha removida. As linhas concluídas
+ * são localizadas pelo prefixo {@code status} do índice {@code idx_email_outbox_status_next_attempt}; com o
+ * expurgo contínuo restam poucas delas.
+ * <p>
+ * Cada tabela é percorrida pelo índice da sua condição em lotes de {@code batch-size} linhas,
+ * cada lote em sua própria transação curta (autocommit), com uma pausa entre lotes para não segurar locks
+ * do InnoDB nem atrasar a replicação. No MySQL, {@code GET_LOCK} garante que apenas um nó execute o expurgo
+ * por vez; o lock pertence à conexão, por isso toda a execução usa uma única conexão.
+ */
+@Component
+public class VerificationReaper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VerificationReaper.class);
+
+    private static final String LOCK_NAME = "securecapita.verification-reaper";
+    private static final String OUTBOX_TABLE = "email_outbox";
+    private static final List<String> VERIFICATION_TABLES = List.of(
+            "account_verifications",
+            "reset_password_verifications",
+            "two_factor_verifications"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration outboxRetention;
+    private final Map<String, Counter> purgedCounters = new LinkedHashMap<>();
+    private final Timer runTimer;
+
+    public VerificationReaper(
+            JdbcTemplate jdbcTemplate,
+            @Value("${application.verification.reaper.enabled:true}") boolean enabled,
+            @Value("${application.verification.reaper.batch-size:500}") int batchSize,
+            @Value("${application.verification.reaper.batch-pause:100ms}") Duration batchPause,
+            @Value("${application.mail.outbox.retention:1h}") Duration outboxRetention,
+            @Value("${application.mail.outbox.dedupe-window:10m}") Duration dedupeWindow,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.outboxRetention = outboxRetention.compareTo(dedupeWindow) < 0 ? dedupeWindow : outboxRetention;
+        for (String table : this.tables()) {
+            purgedCounters.put(table, Counter.builder("verification.reaper.purged")
+                    .description("Expired verification and completed outbox rows deleted by the reaper")
+                    .tag("table", table)
+                    .register(meterRegistry));
+        }
+        this.runTimer = Timer.builder("verification.reaper.run")
+                .description("Time to purge all expired verification and completed outbox rows")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${application.verification.reaper.initial-delay:1m}",
+            fixedDelayString = "${application.verification.reaper.interval:5m}"
+    )
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            runTimer.record(() -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                this.purgeWithLock(connection, LocalDateTime.now());
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            LOGGER.error("Error while purging expired verifications.", e);
+        }
+    }
+
+    private void purgeWithLock(Connection connection, LocalDateTime now) throws SQLException {
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        if (mysql && !this.acquireLock(connection)) {
+            LOGGER.debug("Verification reaper lock held by another node; skipping this run.");
+            return;
+        }
+        try {
+            for (String table : VERIFICATION_TABLES) {
+                this.purgeTable(connection, table, "expiration_date < ?", Timestamp.valueOf(now));
+            }
+            this.purgeTable(connection, OUTBOX_TABLE, "status IN ('SENT', 'FAILED') AND created_at < ?",
+                    Timestamp.valueOf(now.minus(outboxRetention)));
+        } finally {
+            if (mysql) {
+                this.releaseLock(connection);
+            }
+        }
+    }
+
+    private void purgeTable(Connection connection, String table, String condition, Timestamp cutoff) throws SQLException {
+        long total = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM " + table + " WHERE " + condition + " LIMIT ?")) {
+            while (true) {
+                statement.setTimestamp(1, cutoff);
+                statement.setInt(2, batchSize);
+                int deleted = statement.executeUpdate();
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                total += deleted;
+                purgedCounters.get(table).increment(deleted);
+                if (deleted < batchSize || !this.pause()) {
+                    break;
+                }
+            }
+        }
+        if (total > 0) {
+            LOGGER.info("Purged {} expired rows from {}.", total, table);
+        }
+    }
+
+    private List<String> tables() {
+        List<String> tables = new ArrayList<>(VERIFICATION_TABLES);
+        tables.add(OUTBOX_TABLE);
+        return tables;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        } catch (SQLException e) {
+            LOGGER.warn("Could not release verification reaper lock; it is freed when the connection closes.", e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.jvlealc.securecapita.sms;
+
+import io.github.jvlealc.securecapita.exception.SmsDeliveryFailureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envio assíncrono de SMS em um executor dedicado e limitado, com retentativas e circuit breaker.
+ * <p>
+ * {@link #submit(String, String)} apenas reserva uma vaga na fila e retorna; dentro de uma transação
+ * o envio só é agendado após o commit (e a vaga é liberada em caso de rollback). Falhas transitórias
+ * são reagendadas com backoff exponencial sem bloquear os workers. Recusas do circuito aberto não contam como
+ * tentativa: o envio é adiado até o circuito liberar a tentativa de teste, por no máximo {@code retry.max-age}
+ * desde o enfileiramento. Números de telefone são mascarados nos logs.
+ */
+@Component
+public class SmsDispatcher implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmsDispatcher.class);
+
+    private static final String METRIC_PREFIX = "sms";
+
+    private final SmsGateway smsGateway;
+    private final SmsCircuitBreaker circuitBreaker;
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final long maxAgeNanos;
+    private final Timer sendTimer;
+    private final Counter failuresCounter;
+    private final Counter retriesCounter;
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+
+    public SmsDispatcher(
+            SmsGateway smsGateway,
+            @Value("${application.sms.workers:4}") int workers,
+            @Value("${application.sms.queue-capacity:200}") int queueCapacity,
+            @Value("${application.sms.retry.max-attempts:4}") int maxAttempts,
+            @Value("${application.sms.retry.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${application.sms.retry.max-backoff:30s}") Duration maxBackoff,
+            @Value("${application.sms.retry.max-age:5m}") Duration maxAge,
+            @Value("${application.sms.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${application.sms.circuit-breaker.open-duration:30s}") Duration openDuration,
+            MeterRegistry meterRegistry
+    ) {
+        this.smsGateway = smsGateway;
+        this.circuitBreaker = new SmsCircuitBreaker(failureThreshold, openDuration, Clock.systemUTC());
+        this.executor = new ScheduledThreadPoolExecutor(workers, new CustomizableThreadFactory("SmsThread-"));
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.sendTimer = Timer.builder(METRIC_PREFIX + ".send")
+                .description("Time spent in calls to the SMS gateway")
+                .register(meterRegistry);
+        this.failuresCounter = Counter.builder(METRIC_PREFIX + ".send.errors")
+                .description("Failed calls to the SMS gateway")
+                .register(meterRegistry);
+        this.retriesCounter = Counter.builder(METRIC_PREFIX + ".retries")
+                .description("SMS deliveries rescheduled after a transient failure")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("SMS deliveries rejected because the queue was full")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("SMS deliveries abandoned after exhausting retries or on permanent errors")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".pending", pending, AtomicInteger::get)
+                .description("SMS deliveries queued or waiting for retry")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".circuit.open", circuitBreaker, cb -> cb.getState() == SmsCircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the SMS circuit breaker is open or half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agenda o envio de um SMS sem aguardar o provedor.
+     *
+     * @param to número de destino no formato E.164.
+     * @param body texto da mensagem.
+     * @throws SmsDeliveryFailureException se a fila de envio estiver cheia.
+     */
+    public void submit(String to, String body) {
+        if (pending.incrementAndGet() > queueCapacity) {
+            pending.decrementAndGet();
+            rejectedCounter.increment();
+            LOGGER.warn("SMS queue is full; rejecting message to {}.", mask(to));
+            throw new SmsDeliveryFailureException("SMS service is temporarily unavailable.");
+        }
+
+        SmsTask task = new SmsTask(to, body);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        schedule(task, Duration.ZERO);
+                    } else {
+                        pending.decrementAndGet();
+                    }
+                }
+            });
+        } else {
+            this.schedule(task, Duration.ZERO);
+        }
+    }
+
+    private void schedule(SmsTask task, Duration delay) {
+        executor.schedule(() -> this.attempt(task), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void attempt(SmsTask task) {
+        if (!circuitBreaker.tryAcquire()) {
+            this.deferWhileCircuitOpen(task);
+            return;
+        }
+        task.attempts++;
+
+        long start = System.nanoTime();
+        try {
+            smsGateway.send(task.to, task.body);
+            circuitBreaker.onSuccess();
+            pending.decrementAndGet();
+            LOGGER.info("SMS sent to {} after {} attempt(s).", mask(task.to), task.attempts);
+        } catch (SmsDeliveryFailureException e) {
+            failuresCounter.increment();
+            if (e.isRetryable()) {
+                circuitBreaker.onFailure();
+                this.retryOrDrop(task, e.getMessage());
+            } else {
+                circuitBreaker.onSuccess(); // o provedor respondeu; o erro é da mensagem
+                this.drop(task, e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            failuresCounter.increment();
+            circuitBreaker.onFailure();
+            this.retryOrDrop(task, e.getMessage());
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reagenda sem consumir tentativa para quando o circuito liberar a tentativa de teste
+     * (ou, se já meio-aberto, após o backoff inicial).
+     */
+    private void deferWhileCircuitOpen(SmsTask task) {
+        Duration delay = circuitBreaker.remainingOpenTime();
+        if (delay.isZero()) {
+            delay = initialBackoff;
+        }
+        if (executor.isShutdown() || System.nanoTime() - task.enqueuedAtNanos + delay.toNanos() > maxAgeNanos) {
+            this.drop(task, "circuit breaker is open");
+            return;
+        }
+        LOGGER.debug("SMS to {} deferred for {} ms while the circuit breaker is open.", mask(task.to), delay.toMillis());
+        this.schedule(task, delay);
+    }
+
+    private void retryOrDrop(SmsTask task, String reason) {
+        if (task.attempts >= maxAttempts || executor.isShutdown()) {
+            this.drop(task, reason);
+            return;
+        }
+        long backoffMillis = Math.min(initialBackoff.toMillis() << (task.attempts - 1), maxBackoff.toMillis());
+        retriesCounter.increment();
+        LOGGER.warn("SMS to {} failed (attempt {}/{}): {}. Retrying in {} ms.", mask(task.to), task.attempts, maxAttempts, reason, backoffMillis);
+        this.schedule(task, Duration.ofMillis(backoffMillis));
+    }
+
+    private void drop(SmsTask task, String reason) {
+        pending.decrementAndGet();
+        droppedCounter.increment();
+        LOGGER.error("SMS to {} abandoned after {} attempt(s): {}", mask(task.to), task.attempts, reason);
+    }
+
+    /**
+     * @return o número com apenas os quatro últimos dígitos visíveis, para logs.
+     */
+    public static String mask(String phone) {
+        if (phone == null || phone.length() <= 4) {
+            return "****";
+        }
+        return "*".repeat(phone.length() - 4) + phone.substring(phone.length() - 4);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static final class SmsTask {
+        private final String to;
+        private final String body;
+        private final long enqueuedAtNanos = System.nanoTime();
+        private int attempts; // acessado por uma tentativa de cada vez
+
+        private SmsTask(String to, String body) {
+            this.to = to;
+            this.body = body;
+        }
+    }
+}
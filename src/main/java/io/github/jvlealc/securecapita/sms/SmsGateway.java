@@ -0,0 +1,19 @@
+package io.github.jvlealc.securecapita.sms;
+
+import io.github.jvlealc.securecapita.exception.SmsDeliveryFailureException;
+
+/**
+ * Provedor de envio de SMS. A implementação é escolhida por {@code application.sms.gateway}
+ * ({@code twilio} por padrão, {@code stub} para testes e ambiente local).
+ */
+public interface SmsGateway {
+
+    /**
+     * Envia a mensagem de forma síncrona.
+     *
+     * @param to número de destino no formato E.164.
+     * @param body texto da mensagem.
+     * @throws SmsDeliveryFailureException se o provedor recusar ou não responder.
+     */
+    void send(String to, String body);
+}
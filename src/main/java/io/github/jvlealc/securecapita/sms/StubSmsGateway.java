@@ -0,0 +1,53 @@
+package io.github.jvlealc.securecapita.sms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Gateway local que não envia nada: registra as mensagens em memória (as mais recentes)
+ * para inspeção em testes e ambiente de desenvolvimento.
+ */
+@Component
+@ConditionalOnProperty(name = "application.sms.gateway", havingValue = "stub")
+public class StubSmsGateway implements SmsGateway {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StubSmsGateway.class);
+
+    private static final int MAX_RETAINED_MESSAGES = 1_000;
+
+    private final Deque<SentSms> sentMessages = new ArrayDeque<>();
+
+    @Override
+    public void send(String to, String body) {
+        synchronized (sentMessages) {
+            if (sentMessages.size() == MAX_RETAINED_MESSAGES) {
+                sentMessages.removeFirst();
+            }
+            sentMessages.addLast(new SentSms(to, body, Instant.now()));
+        }
+        LOGGER.debug("Stub SMS to {}: {}", SmsDispatcher.mask(to), body);
+    }
+
+    public List<SentSms> getSentMessages() {
+        synchronized (sentMessages) {
+            return new ArrayList<>(sentMessages);
+        }
+    }
+
+    public void clear() {
+        synchronized (sentMessages) {
+            sentMessages.clear();
+        }
+    }
+
+    public record SentSms(String to, String body, Instant sentAt) {
+    }
+}
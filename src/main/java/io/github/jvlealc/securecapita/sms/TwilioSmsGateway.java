@@ -0,0 +1,93 @@
+package io.github.jvlealc.securecapita.sms;
+
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import io.github.jvlealc.securecapita.exception.SmsDeliveryFailureException;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Gateway Twilio com um único {@link TwilioRestClient} de vida longa.
+ * <p>
+ * O cliente usa um pool de conexões HTTP keep-alive próprio, em vez do estado global de {@code Twilio.init},
+ * de modo que envios consecutivos reaproveitam a conexão TLS com a API.
+ */
+@Component
+@ConditionalOnProperty(name = "application.sms.gateway", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsGateway implements SmsGateway, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TwilioSmsGateway.class);
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final TwilioRestClient client;
+    private final PhoneNumber fromNumber;
+
+    public TwilioSmsGateway(
+            @Value("${application.sms.twilio.account-sid}") String accountSid,
+            @Value("${application.sms.twilio.auth-token}") String authToken,
+            @Value("${application.sms.twilio.from-number}") String fromNumber,
+            @Value("${application.sms.twilio.max-connections:20}") int maxConnections,
+            @Value("${application.sms.twilio.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${application.sms.twilio.response-timeout:10s}") Duration responseTimeout
+    ) {
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections) // todas as requisições vão para o mesmo host
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+        HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30));
+        this.client = new TwilioRestClient.Builder(accountSid, authToken)
+                .httpClient(new NetworkHttpClient(httpClientBuilder))
+                .build();
+        this.fromNumber = new PhoneNumber(fromNumber);
+        LOGGER.info("Twilio SMS gateway initialized with up to {} pooled connections.", maxConnections);
+    }
+
+    @Override
+    public void send(String to, String body) {
+        try {
+            Message.creator(new PhoneNumber(to), fromNumber, body).create(client);
+        } catch (ApiConnectionException e) {
+            throw new SmsDeliveryFailureException("Could not reach Twilio.", e, true);
+        } catch (ApiException e) {
+            throw new SmsDeliveryFailureException("Twilio rejected the message: " + e.getMessage(), e, isRetryable(e.getStatusCode()));
+        }
+    }
+
+    private static boolean isRetryable(Integer statusCode) {
+        return statusCode == null || statusCode == 429 || statusCode >= 500;
+    }
+
+    @Override
+    public void destroy() {
+        connectionManager.close(CloseMode.GRACEFUL);
+    }
+}
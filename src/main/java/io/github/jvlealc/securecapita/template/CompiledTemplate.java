@@ -0,0 +1,102 @@
+package io.github.jvlealc.securecapita.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Template HTML pré-compilado em uma lista de segmentos (texto literal ou parâmetro).
+ * <p>
+ * Placeholders usam a sintaxe {@code {{nome}}} e são resolvidos para índices de parâmetro na compilação,
+ * de modo que a renderização apenas concatena segmentos em um único buffer pré-dimensionado.
+ * Todo valor de parâmetro é escapado para HTML.
+ */
+public final class CompiledTemplate {
+
+    private static final String PLACEHOLDER_START = "{{";
+    private static final String PLACEHOLDER_END = "}}";
+
+    private final String[] literals;
+    private final int[] parameterIndexes;
+    private final int parameterCount;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, int[] parameterIndexes, int parameterCount) {
+        this.literals = literals;
+        this.parameterIndexes = parameterIndexes;
+        this.parameterCount = parameterCount;
+        this.literalLength = Arrays.stream(literals).mapToInt(String::length).sum();
+    }
+
+    /**
+     * Compila o template. Os segmentos se alternam: {@code literals[i]} é seguido por {@code parameterIndexes[i]}.
+     *
+     * @param source conteúdo do template
+     * @param parameterNames nomes dos parâmetros aceitos, na ordem de {@link #render(String...)}
+     * @throws IllegalArgumentException se houver placeholder mal formado ou desconhecido
+     */
+    public static CompiledTemplate compile(String source, String... parameterNames) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<String> names = Arrays.asList(parameterNames);
+
+        int position = 0;
+        int start;
+        while ((start = source.indexOf(PLACEHOLDER_START, position)) >= 0) {
+            int end = source.indexOf(PLACEHOLDER_END, start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at position " + start + ".");
+            }
+            String name = source.substring(start + PLACEHOLDER_START.length(), end).trim();
+            int index = names.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown template parameter: " + name);
+            }
+            literals.add(source.substring(position, start));
+            indexes.add(index);
+            position = end + PLACEHOLDER_END.length();
+        }
+        literals.add(source.substring(position));
+
+        return new CompiledTemplate(
+                literals.toArray(String[]::new),
+                indexes.stream().mapToInt(Integer::intValue).toArray(),
+                parameterNames.length
+        );
+    }
+
+    /**
+     * Renderiza o template em um buffer dimensionado para o resultado.
+     *
+     * @param values valores dos parâmetros, na ordem declarada na compilação
+     * @return HTML renderizado
+     */
+    public String render(String... values) {
+        StringBuilder out = new StringBuilder(this.estimateLength(values));
+        this.renderTo(out, values);
+        return out.toString();
+    }
+
+    /**
+     * Renderiza o template anexando ao buffer informado (que pode ser reutilizado pelo chamador).
+     */
+    public void renderTo(StringBuilder out, String... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException("Expected " + parameterCount + " template parameters but got " + values.length + ".");
+        }
+        for (int i = 0; i < parameterIndexes.length; i++) {
+            out.append(literals[i]);
+            HtmlEscaper.escapeTo(out, values[parameterIndexes[i]]);
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    private int estimateLength(String[] values) {
+        int length = literalLength;
+        for (int index : parameterIndexes) {
+            String value = values[index];
+            length += value != null ? value.length() + (value.length() >> 3) : 0; // folga para escapes
+        }
+        return length;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.jvlealc.securecapita.template;
+
+/**
+ * Templates de email disponíveis, com o arquivo em {@code classpath:templates/email/}
+ * e os parâmetros na ordem esperada por {@link EmailTemplateEngine#render(EmailTemplate, String...)}.
+ */
+public enum EmailTemplate {
+    MFA_CODE("mfa-code.html", "userFirstName", "mfaCode"),
+    RESET_PASSWORD("reset-password.html", "userFirstName", "verificationUrl"),
+    RESET_PASSWORD_CONFIRMATION("reset-password-confirmation.html", "userFirstName"),
+    ACCOUNT_VERIFICATION("account-verification.html", "userFirstName", "verificationUrl"),
+    ACCOUNT_VERIFIED("account-verified.html", "userFirstName");
+
+    private final String fileName;
+    private final String[] parameterNames;
+
+    EmailTemplate(String fileName, String... parameterNames) {
+        this.fileName = fileName;
+        this.parameterNames = parameterNames;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String[] getParameterNames() {
+        return parameterNames.clone();
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.jvlealc.securecapita.template;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Carrega e compila todos os {@link EmailTemplate} uma única vez, na inicialização.
+ */
+@Component
+public class EmailTemplateEngine {
+
+    private static final String TEMPLATE_LOCATION = "templates/email/";
+
+    private final Map<EmailTemplate, CompiledTemplate> templates = new EnumMap<>(EmailTemplate.class);
+
+    public EmailTemplateEngine() {
+        for (EmailTemplate template : EmailTemplate.values()) {
+            templates.put(template, CompiledTemplate.compile(loadSource(template), template.getParameterNames()));
+        }
+    }
+
+    /**
+     * @param template template a renderizar
+     * @param values valores dos parâmetros, na ordem de {@link EmailTemplate#getParameterNames()}
+     * @return HTML renderizado, com os valores escapados
+     */
+    public String render(EmailTemplate template, String... values) {
+        return templates.get(template).render(values);
+    }
+
+    public static String loadSource(EmailTemplate template) {
+        try (InputStream inputStream = new ClassPathResource(TEMPLATE_LOCATION + template.getFileName()).getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load email template: " + template.getFileName(), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.jvlealc.securecapita.template;
+
+/**
+ * Escape HTML sem alocações intermediárias: escreve diretamente no buffer de destino.
+ */
+final class HtmlEscaper {
+
+    private HtmlEscaper() {
+    }
+
+    static void escapeTo(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        int unescapedFrom = 0;
+        for (int i = 0; i < length; i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                out.append(value, unescapedFrom, i).append(replacement);
+                unescapedFrom = i + 1;
+            }
+        }
+        out.append(value, unescapedFrom, length);
+    }
+}
@@ -22,7 +22,8 @@ DROP TABLE IF EXISTS `events`;
 DROP TABLE IF EXISTS user_events;
 DROP TABLE IF EXISTS account_verifications;
 DROP TABLE IF EXISTS reset_password_verifications;
-DROP TABLE IF EXISTS mfa_verifications;
+DROP TABLE IF EXISTS two_factor_verifications;
+DROP TABLE IF EXISTS email_outbox;
 
 SET FOREIGN_KEY_CHECKS = 1;
 
@@ -99,43 +100,68 @@ CREATE TABLE IF NOT EXISTS user_events
     created_at DATETIME     DEFAULT CURRENT_TIMESTAMP,
 
     CONSTRAINT fk_user_events_users FOREIGN KEY (user_id) REFERENCES `users` (id) ON DELETE CASCADE ON UPDATE CASCADE,
-    CONSTRAINT fk_user_events_events FOREIGN KEY (event_id) REFERENCES `events` (id) ON DELETE RESTRICT ON UPDATE CASCADE
+    CONSTRAINT fk_user_events_events FOREIGN KEY (event_id) REFERENCES `events` (id) ON DELETE RESTRICT ON UPDATE CASCADE,
+    KEY idx_user_events_user_created (user_id, created_at, id) -- Paginação por keyset da atividade do usuário
 ) ENGINE = InnoDB;
 
 -- Tabelas de verificação
 CREATE TABLE IF NOT EXISTS account_verifications
 (
-    id      BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
-    user_id BIGINT UNSIGNED NOT NULL,
-    url     VARCHAR(255)    NOT NULL,
+    id         BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id    BIGINT UNSIGNED NOT NULL,
+    token_hash      BINARY(32)      NOT NULL, -- SHA-256 do token opaco enviado no link
+    expiration_date DATETIME        DEFAULT NULL, -- NULL enquanto pendente; definida na ativação
 
     CONSTRAINT fk_account_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT uq_account_verifications_user_id UNIQUE (user_id),
-    CONSTRAINT uq_account_verifications_url UNIQUE (url)
+    CONSTRAINT uq_account_verifications_token_hash UNIQUE (token_hash),
+    KEY idx_account_verifications_expiration_date (expiration_date) -- Expurgo pelo VerificationReaper
 ) ENGINE = InnoDB;
 
 CREATE TABLE IF NOT EXISTS reset_password_verifications
 (
     id              BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
     user_id         BIGINT UNSIGNED NOT NULL,
-    url             VARCHAR(255)    NOT NULL,
+    token_hash      BINARY(32)      NOT NULL, -- SHA-256 do token opaco enviado no link
     expiration_date DATETIME        NOT NULL,
 
     CONSTRAINT fk_reset_password_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT uq_reset_password_verifications_user_id UNIQUE (user_id),
-    CONSTRAINT uq_reset_password_verifications_url UNIQUE (url)
+    CONSTRAINT uq_reset_password_verifications_token_hash UNIQUE (token_hash),
+    KEY idx_reset_password_verifications_expiration_date (expiration_date) -- Expurgo pelo VerificationReaper
 ) ENGINE = InnoDB;
 
-CREATE TABLE IF NOT EXISTS mfa_verifications
+CREATE TABLE IF NOT EXISTS two_factor_verifications
 (
     id              BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
     user_id         BIGINT UNSIGNED NOT NULL,
     code            VARCHAR(10)     NOT NULL,
     expiration_date DATETIME        NOT NULL,
 
-    CONSTRAINT fk_mfa_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
-    CONSTRAINT uq_mfa_verifications_user_id UNIQUE (user_id),
-    CONSTRAINT uq_mfa_verifications_code UNIQUE (code)
+    CONSTRAINT fk_two_factor_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT uq_two_factor_verifications_user_id UNIQUE (user_id),
+    CONSTRAINT uq_two_factor_verifications_code UNIQUE (code),
+    KEY idx_two_factor_verifications_expiration_date (expiration_date) -- Expurgo pelo VerificationReaper
+) ENGINE = InnoDB;
+
+-- Outbox de emails (entrega assíncrona e durável)
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id              BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    recipient       VARCHAR(100)    NOT NULL,
+    subject         VARCHAR(150)    NOT NULL,
+    body            MEDIUMTEXT      NOT NULL,
+    dedupe_key      CHAR(64)        NOT NULL,
+    status          VARCHAR(10)     NOT NULL DEFAULT 'PENDING',
+    attempts        INT UNSIGNED    NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME        NOT NULL,
+    last_error      VARCHAR(500)    DEFAULT NULL,
+    created_at      DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at         DATETIME        DEFAULT NULL,
+
+    CONSTRAINT uq_email_outbox_dedupe_key UNIQUE (dedupe_key),
+    CONSTRAINT chk_email_outbox_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED')),
+    KEY idx_email_outbox_status_next_attempt (status, next_attempt_at)
 ) ENGINE = InnoDB;
 
 INSERT INTO roles (name, permission)
@@ -144,6 +170,17 @@ VALUES ('ROLE_USER', 'READ:USER, READ:CUSTOMER'),
        ('ROLE_ADMIN', 'READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER'),
        ('ROLE_SYSADMIN', 'READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER, DELETE:USER, DELETE:CUSTOMER');
 
+INSERT INTO `events` (type, description)
+VALUES ('LOGIN_ATTEMPT', 'Login attempt pending MFA verification'),
+       ('LOGIN_ATTEMPT_FAILURE', 'Login attempt failed'),
+       ('LOGIN_ATTEMPT_SUCCESS', 'Login attempt successful'),
+       ('PROFILE_UPDATE', 'Profile information updated'),
+       ('PROFILE_PICTURE_UPDATE', 'Profile picture updated'),
+       ('ROLE_UPDATE', 'Role and permissions updated'),
+       ('ACCOUNT_SETTINGS_UPDATE', 'Account settings updated'),
+       ('PASSWORD_UPDATE', 'Password updated'),
+       ('MFA_UPDATE', 'MFA settings updated');
+
 
 
 
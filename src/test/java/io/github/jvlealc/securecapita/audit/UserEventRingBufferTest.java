@@ -0,0 +1,111 @@
+package io.github.jvlealc.securecapita.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserEventRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertThat(new UserEventRingBuffer<Integer>(4).capacity()).isEqualTo(4);
+        assertThat(new UserEventRingBuffer<Integer>(5).capacity()).isEqualTo(8);
+        assertThat(new UserEventRingBuffer<Integer>(2).capacity()).isEqualTo(2);
+        assertThat(new UserEventRingBuffer<Integer>(1).capacity()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsOffersWhenFullUntilDrained() {
+        UserEventRingBuffer<Integer> buffer = new UserEventRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 1)).isEqualTo(1);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isFalse();
+    }
+
+    @Test
+    void keepsFifoOrderAcrossWrapAround() {
+        UserEventRingBuffer<Integer> buffer = new UserEventRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        // Lotes de 3 em capacidade 4: cada volta começa em uma posição diferente do array
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(buffer.offer(round * 3 + i)).isTrue();
+            }
+            assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        }
+
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void drainRespectsMaxElements() {
+        UserEventRingBuffer<Integer> buffer = new UserEventRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentProducersNeverLoseOrDuplicateAcceptedElements() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 10_000;
+        UserEventRingBuffer<Integer> buffer = new UserEventRingBuffer<>(256);
+        Set<Integer> accepted = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    if (buffer.offer(base + i)) {
+                        accepted.add(base + i);
+                    }
+                }
+            });
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        start.countDown();
+        executor.shutdown();
+        while (!executor.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            buffer.drainTo(drained, 64);
+        }
+        while (buffer.drainTo(drained, 64) > 0) {
+            // esvazia o restante
+        }
+
+        assertThat(drained).hasSameSizeAs(new HashSet<>(drained));
+        assertThat(new HashSet<>(drained)).isEqualTo(accepted);
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.jvlealc.securecapita.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourcePoolConfigTest {
+
+    private static final int REQUEST_CONNECTIONS = Runtime.getRuntime().availableProcessors() * 2;
+    private static final int MAIL_SENDS = 10;
+    private static final int SCHEDULER_THREADS = 4;
+
+    @Test
+    void derivesPrimaryPoolFromAllItsConsumers() {
+        HikariDataSource dataSource = this.process(new MockEnvironment(), "dataSource");
+
+        int expectedSize = REQUEST_CONNECTIONS + MAIL_SENDS + SCHEDULER_THREADS;
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(expectedSize);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(expectedSize);
+        assertThat(dataSource.getLeakDetectionThreshold()).isEqualTo(Duration.ofSeconds(10).toMillis());
+        assertThat(dataSource.getPoolName()).isEqualTo("securecapita");
+    }
+
+    @Test
+    void sizesReplicaPoolOnlyForReadOnlyRequestsAndTheLagMonitor() {
+        HikariDataSource replica = this.process(new MockEnvironment(), ReplicaRoutingConfig.REPLICA_DATA_SOURCE);
+
+        assertThat(replica.getMaximumPoolSize()).isEqualTo(REQUEST_CONNECTIONS + 1);
+        assertThat(replica.getMinimumIdle()).isEqualTo(REQUEST_CONNECTIONS + 1);
+    }
+
+    @Test
+    void keepsValuesBoundFromSpringDatasourceHikari() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "7")
+                .withProperty("spring.datasource.hikari.minimumIdle", "2")
+                .withProperty("spring.datasource.hikari.connection-timeout", "1234")
+                .withProperty("spring.datasource.hikari.leak-detection-threshold", "0");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(7);
+        dataSource.setMinimumIdle(2);
+        dataSource.setConnectionTimeout(1234);
+        dataSource.setLeakDetectionThreshold(0);
+
+        this.postProcessor(environment).postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(7);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(2);
+        assertThat(dataSource.getConnectionTimeout()).isEqualTo(1234);
+        assertThat(dataSource.getLeakDetectionThreshold()).isZero();
+    }
+
+    @Test
+    void derivesConnectionTimeoutFromTheExplicitPoolSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "5");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(5);
+
+        this.postProcessor(environment).postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(5);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(5);
+        assertThat(dataSource.getConnectionTimeout()).isEqualTo(Duration.ofMillis(50).multipliedBy(200 / 5).toMillis());
+    }
+
+    private HikariDataSource process(MockEnvironment environment, String beanName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        this.postProcessor(environment).postProcessBeforeInitialization(dataSource, beanName);
+        return dataSource;
+    }
+
+    private BeanPostProcessor postProcessor(MockEnvironment environment) {
+        return DataSourcePoolConfig.hikariPoolSizingPostProcessor(0, Duration.ofMillis(50), Duration.ZERO, Duration.ZERO,
+                250, MAIL_SENDS, SCHEDULER_THREADS, 200, environment);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.jvlealc.securecapita.config;
+
+import io.github.jvlealc.securecapita.security.crypto.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regra de rehash do {@link PasswordEncoder} exatamente como registrado por {@link SecurityConfig#passwordEncoder}.
+ */
+class SecurityConfigPasswordEncoderTest {
+
+    private static final int STRENGTH = 5;
+
+    private final PasswordHashingExecutor hashingExecutor =
+            new PasswordHashingExecutor(1, 4, Duration.ofSeconds(1), new SimpleMeterRegistry());
+    private final PasswordEncoder encoder = new SecurityConfig(null, null, null, null, null)
+            .passwordEncoder(hashingExecutor, Duration.ofMillis(250), 4, 14, STRENGTH);
+
+    @AfterEach
+    void shutdown() {
+        hashingExecutor.destroy();
+    }
+
+    @Test
+    void encodesWithPrefixAndConfiguredCost() {
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void rehashesPrefixedHashOnlyWhenCostIsLower() {
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + bcrypt(4))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + bcrypt(6))).isFalse();
+    }
+
+    @Test
+    void rehashesLegacyHashOnlyWhenCostIsLower() {
+        String lowerCost = bcrypt(4);
+        String higherCost = bcrypt(6);
+
+        assertThat(encoder.upgradeEncoding(lowerCost)).isTrue();
+        assertThat(encoder.upgradeEncoding(bcrypt(STRENGTH))).isFalse();
+        assertThat(encoder.upgradeEncoding(higherCost)).isFalse();
+        assertThat(encoder.matches("secret", higherCost)).isTrue();
+    }
+
+    private static String bcrypt(int cost) {
+        return new BCryptPasswordEncoder(cost).encode("secret");
+    }
+}
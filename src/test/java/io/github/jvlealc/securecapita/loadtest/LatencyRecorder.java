@@ -0,0 +1,70 @@
+package io.github.jvlealc.securecapita.loadtest;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Amostras de latência por endpoint, com percentis e vazão calculados ao final da execução.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Samples> samplesByEndpoint = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long startNanos, long endNanos, boolean success) {
+        samplesByEndpoint.computeIfAbsent(endpoint, key -> new Samples()).add(startNanos, endNanos, success);
+    }
+
+    List<EndpointStats> snapshot() {
+        List<EndpointStats> stats = new ArrayList<>();
+        samplesByEndpoint.forEach((endpoint, samples) -> stats.add(samples.toStats(endpoint)));
+        stats.sort(Comparator.comparing(EndpointStats::endpoint));
+        return stats;
+    }
+
+    record EndpointStats(String endpoint, int requests, int errors, double throughputPerSecond, double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private long firstStart = Long.MAX_VALUE;
+        private long lastEnd = Long.MIN_VALUE;
+
+        synchronized void add(long startNanos, long endNanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = endNanos - startNanos;
+            if (!success) {
+                errors++;
+            }
+            firstStart = Math.min(firstStart, startNanos);
+            lastEnd = Math.max(lastEnd, endNanos);
+        }
+
+        synchronized EndpointStats toStats(String endpoint) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double elapsedSeconds = Math.max(1L, lastEnd - firstStart) / 1e9;
+            return new EndpointStats(
+                    endpoint,
+                    count,
+                    errors,
+                    count / elapsedSeconds,
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6
+            );
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package io.github.jvlealc.securecapita.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.github.jvlealc.securecapita.audit.UserEventRecorder;
+import io.github.jvlealc.securecapita.sms.StubSmsGateway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Harness de carga ponta a ponta: sobe a aplicação no perfil {@code loadtest} (H2 em modo MySQL, GreenMail como
+ * servidor SMTP e {@link StubSmsGateway} no lugar do Twilio) e executa cenários roteirizados contra a API HTTP.
+ * <p>
+ * Cenários: rajada de cadastros, login sem MFA, login com MFA via SMS, leitura de perfil, refresh de token,
+ * leitura paginada da atividade ({@code user_events}) e rajada de pedidos de redefinição de senha. Ao final imprime, por endpoint, requisições, erros, vazão e
+ * latências p50/p99/máxima, e grava o relatório e um snapshot das métricas Prometheus em {@code target/loadtest/}
+ * para comparação entre execuções.
+ * <p>
+ * {@code -Dloadtest.threads=platform|virtual} escolhe o modo de execução ({@code spring.threads.virtual.enabled}).
+ * Cada execução guarda o último CSV do seu modo; quando já existe o do outro modo, {@code comparison.txt} compara
+ * vazão e latências dos dois lado a lado.
+ * <p>
+ * Desabilitado por padrão. Executar com:
+ * <pre>
+ * mvn test -Dtest=LoadTestHarness -Dloadtest=true [-Dloadtest.threads=virtual -Dloadtest.users=200 -Dloadtest.concurrency=32 -Dloadtest.iterations=2000]
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("loadtest")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoadTestHarness {
+
+    private static final String PASSWORD = "Passw0rd!";
+    private static final int USERS = Integer.getInteger("loadtest.users", 200);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 2_000);
+    private static final String THREADS = System.getProperty("loadtest.threads", "platform");
+    private static final List<String> THREAD_MODES = List.of("platform", "virtual");
+    private static final Path REPORT_DIRECTORY = Path.of("target", "loadtest");
+    private static final Duration SMS_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final GreenMail SMTP = new GreenMail(ServerSetupTest.SMTP.dynamicPort())
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("loadtest@securecapita.org", "loadtest"));
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private StubSmsGateway smsGateway;
+
+    @Autowired
+    private UserEventRecorder userEventRecorder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @DynamicPropertySource
+    static void harnessProperties(DynamicPropertyRegistry registry) {
+        if (!THREAD_MODES.contains(THREADS)) {
+            throw new IllegalArgumentException("loadtest.threads must be one of " + THREAD_MODES + ".");
+        }
+        registry.add("spring.threads.virtual.enabled", () -> "virtual".equals(THREADS));
+        SMTP.start();
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", () -> SMTP.getSmtp().getPort());
+    }
+
+    @AfterAll
+    static void stopSmtp() {
+        SMTP.stop();
+    }
+
+    @Test
+    void runScenarios() throws Exception {
+        List<String> plainUsers = this.seedUsers("plain", USERS, false);
+        List<String> mfaUsers = this.seedUsers("mfa", USERS, true);
+
+        this.runScenario(USERS, i -> this.post("POST /users", "/users", """
+                {"firstName":"Load","lastName":"Test","email":"burst-%d@loadtest.org","password":"%s"}
+                """.formatted(i, PASSWORD), null));
+
+        // Cadastros simultâneos do mesmo email: um 201 e os demais 409, decididos pela constraint uq_users_email.
+        this.runScenario(CONCURRENCY, i -> this.registerDuplicate());
+
+        List<Tokens> tokens = new CopyOnWriteArrayList<>();
+        this.runScenario(ITERATIONS, i -> {
+            HttpResponse<String> response = this.login(plainUsers.get(i % plainUsers.size()));
+            if (i < plainUsers.size() && response.statusCode() == 200) {
+                tokens.add(this.tokens(response));
+            }
+        });
+
+        this.runScenario(mfaUsers.size(), i -> this.loginWithMfa(mfaUsers.get(i), i));
+
+        this.runScenario(ITERATIONS, i -> this.get("GET /users/profile", "/users/profile", tokens.get(i % tokens.size()).accessToken()));
+
+        this.runScenario(ITERATIONS, i -> this.get("GET /users/refresh/token", "/users/refresh/token", tokens.get(i % tokens.size()).refreshToken()));
+
+        userEventRecorder.flush();
+        this.runScenario(ITERATIONS, i -> this.readActivity(tokens.get(i % tokens.size())));
+
+        this.runScenario(ITERATIONS, i -> this.send("POST /users/password-resets/{email}",
+                HttpRequest.newBuilder(this.uri("/users/password-resets/" + plainUsers.get(i % plainUsers.size())))
+                        .POST(HttpRequest.BodyPublishers.noBody()), null));
+
+        this.report();
+    }
+
+    private List<String> seedUsers(String prefix, int count, boolean smsMfa) {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> rows = new ArrayList<>(count);
+        List<String> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = prefix + "-" + i + "@loadtest.org";
+            emails.add(email);
+            rows.add(new Object[]{"Seed", "User", email, passwordHash, phone(prefix, i), smsMfa, smsMfa ? "SMS" : "EMAIL"});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (first_name, last_name, email, password, phone, enabled, non_locked, using_mfa, mfa_type)
+                VALUES (?, ?, ?, ?, ?, TRUE, TRUE, ?, ?)
+                """, rows);
+        jdbcTemplate.update("""
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, (SELECT r.id FROM roles r WHERE r.name = 'ROLE_USER') FROM users u WHERE u.email LIKE ?
+                """, prefix + "-%@loadtest.org");
+        return emails;
+    }
+
+    private void loginWithMfa(String email, int index) throws IOException, InterruptedException {
+        HttpResponse<String> response = this.login(email);
+        if (response.statusCode() != 202) {
+            return;
+        }
+        long waitStart = System.nanoTime();
+        String code = this.awaitSmsCode("+55" + phone("mfa", index));
+        recorder.record("SMS code delivery", waitStart, System.nanoTime(), code != null);
+        if (code != null) {
+            this.post("POST /users/verify/code", "/users/verify/code", """
+                    {"email":"%s","code":"%s"}
+                    """.formatted(email, code), null);
+        }
+    }
+
+    private String awaitSmsCode(String phone) throws InterruptedException {
+        long deadline = System.nanoTime() + SMS_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            List<StubSmsGateway.SentSms> messages = smsGateway.getSentMessages();
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                if (messages.get(i).to().equals(phone)) {
+                    return messages.get(i).body();
+                }
+            }
+            Thread.sleep(10);
+        }
+        return null;
+    }
+
+    private HttpResponse<String> login(String email) throws IOException, InterruptedException {
+        return this.post("POST /users/login", "/users/login", """
+                {"email":"%s","password":"%s"}
+                """.formatted(email, PASSWORD), null);
+    }
+
+    private HttpResponse<String> post(String endpoint, String path, String json, String bearerToken) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(this.uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        return this.send(endpoint, builder, bearerToken);
+    }
+
+    private void registerDuplicate() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(this.uri("/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"firstName":"Load","lastName":"Test","email":"duplicate@loadtest.org","password":"%s"}
+                        """.formatted(PASSWORD)))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long start = System.nanoTime();
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        recorder.record("POST /users (duplicate)", start, System.nanoTime(), status == 201 || status == 409);
+    }
+
+    private HttpResponse<String> get(String endpoint, String path, String bearerToken) throws IOException, InterruptedException {
+        return this.send(endpoint, HttpRequest.newBuilder(this.uri(path)).GET(), bearerToken);
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder builder, String bearerToken) throws IOException, InterruptedException {
+        if (bearerToken != null) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(builder.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+        recorder.record(endpoint, start, System.nanoTime(), response.statusCode() < 400);
+        return response;
+    }
+
+    private Tokens tokens(HttpResponse<String> response) throws IOException {
+        JsonNode data = objectMapper.readTree(response.body()).path("data");
+        return new Tokens(data.path("user").path("id").asLong(), data.path("access_token").asText(), data.path("refresh_token").asText());
+    }
+
+    /**
+     * Primeira página da atividade do usuário e, se houver, a página seguinte pelo cursor.
+     */
+    private void readActivity(Tokens tokens) throws IOException, InterruptedException {
+        String path = "/users/" + tokens.userId() + "/events?size=2";
+        HttpResponse<String> response = this.get("GET /users/{id}/events", path, tokens.accessToken());
+        if (response.statusCode() != 200) {
+            return;
+        }
+        JsonNode nextCursor = objectMapper.readTree(response.body()).path("data").path("next_cursor");
+        if (nextCursor.isTextual()) {
+            this.get("GET /users/{id}/events?cursor", path + "&cursor=" + nextCursor.asText(), tokens.accessToken());
+        }
+    }
+
+    /**
+     * Executa {@code iterations} chamadas da tarefa com {@link #CONCURRENCY} workers em paralelo.
+     */
+    private void runScenario(int iterations, ScenarioStep step) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        for (int w = 0; w < CONCURRENCY; w++) {
+            workers.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < iterations) {
+                    try {
+                        step.run(i);
+                    } catch (Exception e) {
+                        recorder.record("client errors", System.nanoTime(), System.nanoTime(), false);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void report() throws IOException {
+        userEventRecorder.flush();
+        Long userEvents = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_events", Long.class);
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "threads=%s users=%d concurrency=%d iterations=%d emails-delivered=%d user-events=%d%n",
+                THREADS, USERS, CONCURRENCY, ITERATIONS, SMTP.getReceivedMessages().length, userEvents));
+        report.append(String.format(Locale.ROOT, "%-38s %8s %7s %10s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        StringBuilder csv = new StringBuilder("endpoint,requests,errors,throughput_per_second,p50_ms,p99_ms,max_ms\n");
+        for (LatencyRecorder.EndpointStats stats : recorder.snapshot()) {
+            report.append(String.format(Locale.ROOT, "%-38s %8d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                    stats.endpoint(), stats.requests(), stats.errors(), stats.throughputPerSecond(),
+                    stats.p50Millis(), stats.p99Millis(), stats.maxMillis()));
+            csv.append(String.format(Locale.ROOT, "\"%s\",%d,%d,%.1f,%.3f,%.3f,%.3f%n",
+                    stats.endpoint(), stats.requests(), stats.errors(), stats.throughputPerSecond(),
+                    stats.p50Millis(), stats.p99Millis(), stats.maxMillis()));
+        }
+        System.out.println(report);
+
+        Files.createDirectories(REPORT_DIRECTORY);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Files.writeString(REPORT_DIRECTORY.resolve("report-" + THREADS + "-" + timestamp + ".csv"), csv);
+        Files.writeString(REPORT_DIRECTORY.resolve("latest-" + THREADS + ".csv"), csv);
+        Files.writeString(REPORT_DIRECTORY.resolve("report.txt"), report);
+        Files.writeString(REPORT_DIRECTORY.resolve("metrics-" + THREADS + "-" + timestamp + ".prom"), this.scrapeMetrics());
+        this.compareThreadModes();
+    }
+
+    /**
+     * Compara a última execução de cada modo de threads, endpoint a endpoint, quando ambas existem.
+     */
+    private void compareThreadModes() throws IOException {
+        Path platformCsv = REPORT_DIRECTORY.resolve("latest-platform.csv");
+        Path virtualCsv = REPORT_DIRECTORY.resolve("latest-virtual.csv");
+        if (!Files.exists(platformCsv) || !Files.exists(virtualCsv)) {
+            return;
+        }
+        Map<String, String[]> platform = readCsv(platformCsv);
+        Map<String, String[]> virtual = readCsv(virtualCsv);
+        StringBuilder comparison = new StringBuilder();
+        comparison.append(String.format(Locale.ROOT, "%-38s %21s %21s %21s%n",
+                "endpoint", "req/s (plat|virt)", "p50 ms (plat|virt)", "p99 ms (plat|virt)"));
+        for (Map.Entry<String, String[]> entry : platform.entrySet()) {
+            String[] v = virtual.get(entry.getKey());
+            if (v == null) {
+                continue;
+            }
+            String[] p = entry.getValue();
+            comparison.append(String.format(Locale.ROOT, "%-38s %10s|%-10s %10s|%-10s %10s|%-10s%n",
+                    entry.getKey(), p[3], v[3], p[4], v[4], p[5], v[5]));
+        }
+        System.out.println(comparison);
+        Files.writeString(REPORT_DIRECTORY.resolve("comparison.txt"), comparison);
+    }
+
+    /**
+     * @return colunas de cada linha do CSV do relatório, pelo nome do endpoint (entre aspas, sem vírgulas).
+     */
+    private static Map<String, String[]> readCsv(Path csv) throws IOException {
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(csv);
+        for (String line : lines.subList(1, lines.size())) {
+            int endpointEnd = line.indexOf('"', 1);
+            String[] values = line.substring(endpointEnd + 2).split(",");
+            String[] columns = new String[values.length + 1];
+            columns[0] = line.substring(1, endpointEnd);
+            System.arraycopy(values, 0, columns, 1, values.length);
+            rows.put(columns[0], columns);
+        }
+        return rows;
+    }
+
+    /**
+     * Snapshot do endpoint Prometheus ao final da execução, para detalhar onde a latência foi gasta
+     * (assinatura/verificação de tokens, hashing de senha, executores e notificações).
+     */
+    private String scrapeMetrics() throws IOException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + managementPort + "/actuator/prometheus"))
+                    .GET()
+                    .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scraping metrics.", e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String phone(String prefix, int index) {
+        return String.format("%s%08d", "mfa".equals(prefix) ? "119" : "118", index);
+    }
+
+    @FunctionalInterface
+    private interface ScenarioStep {
+        void run(int index) throws Exception;
+    }
+
+    private record Tokens(long userId, String accessToken, String refreshToken) {
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.jvlealc.securecapita.repository;
+
+import io.github.jvlealc.securecapita.domain.AccountVerification;
+import io.github.jvlealc.securecapita.domain.ResetPasswordVerification;
+import io.github.jvlealc.securecapita.domain.User;
+import io.github.jvlealc.securecapita.security.crypto.VerificationTokens;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca das verificações pelo SHA-256 do token do link, no banco H2 em modo MySQL do perfil {@code loadtest}.
+ */
+@DataJpaTest
+@ActiveProfiles("loadtest")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VerificationTokenLookupTest {
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private RoleJpaRepository roleRepository;
+
+    @Autowired
+    private AccountVerificationJpaRepository accountVerificationRepository;
+
+    @Autowired
+    private ResetPasswordVerificationJpaRepository resetPasswordVerificationRepository;
+
+    @Test
+    void findsAccountVerificationOnlyByTheHashOfItsToken() {
+        String token = VerificationTokens.generate();
+        accountVerificationRepository.save(new AccountVerification(this.saveUser("account@lookup.test"), VerificationTokens.hash(token)));
+
+        assertThat(accountVerificationRepository.findByTokenHash(VerificationTokens.hash(token)))
+                .get()
+                .extracting(verification -> verification.getUser().getEmail())
+                .isEqualTo("account@lookup.test");
+        assertThat(accountVerificationRepository.findByTokenHash(VerificationTokens.hash(VerificationTokens.generate()))).isEmpty();
+    }
+
+    @Test
+    void findsResetPasswordVerificationOnlyByTheHashOfItsToken() {
+        String token = VerificationTokens.generate();
+        User user = this.saveUser("reset@lookup.test");
+        resetPasswordVerificationRepository.save(
+                new ResetPasswordVerification(user, VerificationTokens.hash(token), LocalDateTime.now().plusDays(1)));
+
+        assertThat(resetPasswordVerificationRepository.findByTokenHash(VerificationTokens.hash(token)))
+                .get()
+                .extracting(verification -> verification.getUser().getId())
+                .isEqualTo(user.getId());
+        assertThat(resetPasswordVerificationRepository.findByTokenHash(VerificationTokens.hash(token + "x"))).isEmpty();
+    }
+
+    private User saveUser(String email) {
+        User user = User.builder()
+                .firstName("Lookup")
+                .lastName("Test")
+                .email(email)
+                .password("{noop}secret")
+                .role(roleRepository.findByName("ROLE_USER").orElseThrow())
+                .build();
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.jvlealc.securecapita.security.authorization;
+
+import io.github.jvlealc.securecapita.security.model.Permission;
+import io.github.jvlealc.securecapita.security.model.PermissionAuthenticationToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionAuthorizationManagerTest {
+
+    private final PermissionAuthorizationManager manager = PermissionAuthorizationManager.hasPermission(Permission.UPDATE_USER);
+    private final RequestAuthorizationContext context = new RequestAuthorizationContext(new MockHttpServletRequest());
+
+    @Test
+    void grantsTokenWithPermissionBit() {
+        long permissions = Permission.READ_USER.getMask() | Permission.UPDATE_USER.getMask();
+
+        assertThat(this.authorize(new PermissionAuthenticationToken("user@mail.com", permissions))).isTrue();
+    }
+
+    @Test
+    void deniesTokenWithoutPermissionBit() {
+        long permissions = Permission.READ_USER.getMask() | Permission.UPDATE_CUSTOMER.getMask();
+
+        assertThat(this.authorize(new PermissionAuthenticationToken("user@mail.com", permissions))).isFalse();
+    }
+
+    @Test
+    void fallsBackToAuthorityNamesForOtherAuthentications() {
+        Authentication granted = UsernamePasswordAuthenticationToken.authenticated(
+                "user@mail.com", null, AuthorityUtils.createAuthorityList("READ:USER", "UPDATE:USER"));
+        Authentication denied = UsernamePasswordAuthenticationToken.authenticated(
+                "user@mail.com", null, AuthorityUtils.createAuthorityList("READ:USER"));
+
+        assertThat(this.authorize(granted)).isTrue();
+        assertThat(this.authorize(denied)).isFalse();
+    }
+
+    @Test
+    void deniesMissingUnauthenticatedAndAnonymous() {
+        Authentication unauthenticated = UsernamePasswordAuthenticationToken.unauthenticated("user@mail.com", "secret");
+        Authentication anonymous = new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("UPDATE:USER"));
+
+        assertThat(this.authorize(null)).isFalse();
+        assertThat(this.authorize(unauthenticated)).isFalse();
+        assertThat(this.authorize(anonymous)).isFalse();
+    }
+
+    private boolean authorize(Authentication authentication) {
+        return manager.authorize(() -> authentication, context).isGranted();
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.jvlealc.securecapita.security.cache;
+
+import io.github.jvlealc.securecapita.datasource.ReadYourWrites;
+import io.github.jvlealc.securecapita.security.model.UserSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+
+    private final UserCache cache = new UserCache(100, Duration.ofMinutes(1),
+            new ReadYourWrites(Duration.ofSeconds(5), 100), new SimpleMeterRegistry());
+
+    @Test
+    void getServesCachedEntryWithoutLoadingAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("Ana@Example.com", email -> { loads.incrementAndGet(); return Optional.of(snapshot("old-hash")); });
+        Optional<UserSnapshot> user = cache.get("ana@example.com", email -> { loads.incrementAndGet(); return Optional.of(snapshot("new-hash")); });
+
+        assertThat(loads).hasValue(1);
+        assertThat(user).map(UserSnapshot::password).hasValue("old-hash");
+    }
+
+    @Test
+    void reloadIgnoresCachedEntryAndReplacesIt() {
+        cache.get("ana@example.com", email -> Optional.of(snapshot("old-hash")));
+
+        Optional<UserSnapshot> reloaded = cache.reload("ana@example.com", email -> Optional.of(snapshot("new-hash")));
+
+        assertThat(reloaded).map(UserSnapshot::password).hasValue("new-hash");
+        assertThat(cache.getIfPresent("ana@example.com")).map(UserSnapshot::password).hasValue("new-hash");
+    }
+
+    @Test
+    void reloadOfRemovedUserDropsCachedEntry() {
+        cache.get("ana@example.com", email -> Optional.of(snapshot("old-hash")));
+
+        Optional<UserSnapshot> reloaded = cache.reload("ana@example.com", email -> Optional.empty());
+
+        assertThat(reloaded).isEmpty();
+        assertThat(cache.getIfPresent("ana@example.com")).isEmpty();
+    }
+
+    private static UserSnapshot snapshot(String password) {
+        return new UserSnapshot(1L, "Ana", "Silva", "ana@example.com", password, null, null, null, null,
+                true, true, false, null, null, null, 1L, "ROLE_USER", "0");
+    }
+}
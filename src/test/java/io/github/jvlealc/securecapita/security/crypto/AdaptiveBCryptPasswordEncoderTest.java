@@ -0,0 +1,40 @@
+package io.github.jvlealc.securecapita.security.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    private final AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradesHashWithLowerCost() {
+        String hash = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(encoder.upgradeEncoding(hash)).isTrue();
+    }
+
+    @Test
+    void keepsHashWithSameCost() {
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void neverDowngradesHashWithHigherCost() {
+        String hash = new BCryptPasswordEncoder(6).encode("secret");
+
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+        assertThat(encoder.matches("secret", hash)).isTrue();
+    }
+
+    @Test
+    void ignoresMissingOrNonBCryptHashes() {
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("plain-text")).isFalse();
+    }
+}
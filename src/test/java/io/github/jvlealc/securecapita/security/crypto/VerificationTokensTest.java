@@ -0,0 +1,46 @@
+package io.github.jvlealc.securecapita.security.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerificationTokensTest {
+
+    @Test
+    void generatesUrlSafeTokensWith256Bits() {
+        String token = VerificationTokens.generate();
+
+        assertThat(token).hasSize(43).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void generatesDistinctTokens() {
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            tokens.add(VerificationTokens.generate());
+        }
+
+        assertThat(tokens).hasSize(1_000);
+    }
+
+    @Test
+    void hashIsDeterministicSha256() {
+        byte[] hash = VerificationTokens.hash("abc");
+
+        assertThat(hash).hasSize(32).isEqualTo(VerificationTokens.hash("abc"));
+        // Vetor de teste do FIPS 180-2 para "abc"
+        assertThat(HexFormat.of().formatHex(hash))
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    void differentTokensHaveDifferentHashes() {
+        String token = VerificationTokens.generate();
+
+        assertThat(VerificationTokens.hash(token)).isNotEqualTo(VerificationTokens.hash(token + "x"));
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.jvlealc.securecapita.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(60);
+
+    /** Início de uma janela: múltiplo exato do tamanho da janela. */
+    private final AtomicLong nanos = new AtomicLong(WINDOW.toNanos() * 1_000);
+    private final SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(WINDOW, 3, 1_000, nanos::get);
+
+    @Test
+    void acceptsUpToLimitWithinWindow() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("key")).isZero();
+        }
+
+        Duration retryAfter = limiter.tryAcquire("key");
+
+        assertThat(retryAfter).isPositive().isLessThanOrEqualTo(WINDOW);
+    }
+
+    @Test
+    void keysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void previousWindowWeighsProportionallyToTheRemainingTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("key");
+        }
+
+        // 1/3 da janela seguinte decorrido: estimativa = 3 * 2/3 = 2, cabe mais uma
+        this.advance(WINDOW.plus(WINDOW.dividedBy(3)));
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+
+        // Ao final da janela o peso da anterior é quase nulo
+        this.advance(WINDOW.dividedBy(3).multipliedBy(2).minusMillis(1));
+        assertThat(limiter.tryAcquire("key")).isZero();
+    }
+
+    @Test
+    void forgetsCountsOlderThanTheWindowBeforeLast() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("key");
+        }
+
+        this.advance(WINDOW.multipliedBy(2));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("key")).isZero();
+        }
+    }
+
+    @Test
+    void retryAfterPointsToTheEndOfTheCurrentWindow() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("key");
+        }
+        this.advance(Duration.ofSeconds(45));
+
+        assertThat(limiter.tryAcquire("key")).isEqualTo(Duration.ofSeconds(15));
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedTheLimit() throws InterruptedException {
+        SlidingWindowRateLimiter shared = new SlidingWindowRateLimiter(WINDOW, 100, 1_000, nanos::get);
+        int threads = 16;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 50; i++) {
+                    if (shared.tryAcquire("key").isZero()) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(accepted.get()).isEqualTo(100);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.jvlealc.securecapita.service;
+
+import io.github.jvlealc.securecapita.dto.UserEventPageDto;
+import io.github.jvlealc.securecapita.dto.UserEventResponseDto;
+import io.github.jvlealc.securecapita.exception.InvalidCursorException;
+import io.github.jvlealc.securecapita.repository.UserEventJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserEventServiceTest {
+
+    private static final Long USER_ID = 7L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_000_000);
+
+    private final UserEventJdbcRepository repository = mock(UserEventJdbcRepository.class);
+    private final UserEventService service = new UserEventService(repository);
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(repository.findFirstPage(USER_ID, 3)).thenReturn(List.of(event(10, NOW), event(9, NOW.minusSeconds(1))));
+
+        UserEventPageDto page = service.getUserEvents(USER_ID, null, 2);
+
+        assertThat(page.events()).hasSize(2);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorOfFullPageResumesAfterItsLastEvent() {
+        LocalDateTime lastCreatedAt = NOW.minusSeconds(1);
+        when(repository.findFirstPage(USER_ID, 3))
+                .thenReturn(List.of(event(10, NOW), event(9, lastCreatedAt), event(8, NOW.minusSeconds(2))));
+
+        UserEventPageDto first = service.getUserEvents(USER_ID, null, 2);
+
+        assertThat(first.events()).extracting(UserEventResponseDto::id).containsExactly(10L, 9L);
+        assertThat(first.nextCursor()).matches("[A-Za-z0-9_-]+");
+
+        service.getUserEvents(USER_ID, first.nextCursor(), 2);
+
+        verify(repository).findPageBefore(USER_ID, lastCreatedAt, 9L, 3);
+    }
+
+    @Test
+    void blankCursorReadsFirstPage() {
+        service.getUserEvents(USER_ID, " ", 5);
+
+        verify(repository).findFirstPage(USER_ID, 6);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "MjAyNi0xMy0wMVQwMDowMHwx", "MjAyNi0wMS0wMVQwMDowMHxhYmM"})
+    void rejectsMalformedCursor(String cursor) {
+        assertThatThrownBy(() -> service.getUserEvents(USER_ID, cursor, 5))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void rejectsCursorWithMissingId() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((NOW + "|").getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> service.getUserEvents(USER_ID, cursor, 5))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static UserEventResponseDto event(long id, LocalDateTime createdAt) {
+        return new UserEventResponseDto(id, "LOGIN_ATTEMPT_SUCCESS", "Login attempt successful", "JUnit", "127.0.0.1", createdAt);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.jvlealc.securecapita.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expurgo das mensagens concluídas da outbox, no banco H2 em modo MySQL do perfil {@code loadtest}.
+ * Sem transação de teste: o reaper confirma cada lote na própria conexão. Usa um banco próprio, pois o script do
+ * perfil não pode ser reaplicado ao banco compartilhado por outros contextos de teste.
+ */
+@JdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:verification-reaper;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("loadtest")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VerificationReaperTest {
+
+    private static final String RECIPIENT = "reaper@outbox.test";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient = ?", RECIPIENT);
+    }
+
+    @Test
+    void purgesOnlyCompletedOutboxMessagesOlderThanTheRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        this.insert("sent-old-1", "SENT", now.minusHours(2));
+        this.insert("sent-old-2", "SENT", now.minusHours(2));
+        this.insert("sent-old-3", "SENT", now.minusHours(2));
+        this.insert("failed-old", "FAILED", now.minusHours(2));
+        this.insert("sent-recent", "SENT", now.minusMinutes(30));
+        this.insert("pending-old", "PENDING", now.minusHours(2));
+        this.insert("sending-old", "SENDING", now.minusHours(2));
+
+        this.reaper(Duration.ofHours(1)).purgeExpired();
+
+        assertThat(this.remainingSubjects()).containsExactlyInAnyOrder("sent-recent", "pending-old", "sending-old");
+    }
+
+    @Test
+    void neverRetainsLessThanTheDedupeWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        this.insert("sent-inside-window", "SENT", now.minusMinutes(5));
+        this.insert("sent-outside-window", "SENT", now.minusMinutes(15));
+
+        this.reaper(Duration.ZERO).purgeExpired();
+
+        assertThat(this.remainingSubjects()).containsExactly("sent-inside-window");
+    }
+
+    private VerificationReaper reaper(Duration outboxRetention) {
+        return new VerificationReaper(jdbcTemplate, true, 2, Duration.ZERO, outboxRetention, Duration.ofMinutes(10),
+                new SimpleMeterRegistry());
+    }
+
+    private void insert(String subject, String status, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+                INSERT INTO email_outbox (recipient, subject, body, dedupe_key, status, attempts, next_attempt_at, created_at)
+                VALUES (?, ?, '', ?, ?, 0, ?, ?)
+                """, RECIPIENT, subject, String.format("%-64s", subject).replace(' ', '0'), status,
+                Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+    }
+
+    private List<String> remainingSubjects() {
+        return jdbcTemplate.queryForList("SELECT subject FROM email_outbox WHERE recipient = ?", String.class, RECIPIENT);
+    }
+}
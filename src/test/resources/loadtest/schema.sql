@@ -0,0 +1,144 @@
+/*
+ *  H2 (modo MySQL) - DDL & DML do perfil loadtest.
+ *  Espelha src/main/resources/schema.sql sem as cláusulas exclusivas do MySQL (ENGINE, UNSIGNED, KEY inline).
+ */
+CREATE TABLE IF NOT EXISTS users
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    first_name VARCHAR(40)  NOT NULL,
+    last_name  VARCHAR(40)  NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    password   VARCHAR(255) DEFAULT NULL,
+    phone      VARCHAR(30)  DEFAULT NULL,
+    address    VARCHAR(255) DEFAULT NULL,
+    title      VARCHAR(50)  DEFAULT NULL,
+    bio        VARCHAR(500) DEFAULT NULL,
+    enabled    BOOLEAN      DEFAULT FALSE,
+    non_locked BOOLEAN      DEFAULT TRUE,
+    using_mfa  BOOLEAN      DEFAULT FALSE,
+    mfa_type   VARCHAR(10)  NOT NULL DEFAULT 'EMAIL',
+    image_url  VARCHAR(255) DEFAULT 'https://cdn-icons-png.flaticon.com/512/3033/3033143.png',
+    created_at TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_users_email UNIQUE (email),
+    CONSTRAINT chk_users_mfa_type CHECK (mfa_type IN ('EMAIL', 'SMS'))
+);
+
+CREATE TABLE IF NOT EXISTS roles
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name       VARCHAR(50)  NOT NULL,
+    permission VARCHAR(255) NOT NULL,
+
+    CONSTRAINT uq_roles_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS user_roles
+(
+    id      BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+
+    CONSTRAINT fk_user_roles_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_user_roles_roles FOREIGN KEY (role_id) REFERENCES roles (id) ON DELETE RESTRICT,
+    CONSTRAINT uq_user_roles_user_id UNIQUE (user_id)
+);
+CREATE INDEX IF NOT EXISTS idx_user_roles_roles ON user_roles (role_id);
+
+CREATE TABLE IF NOT EXISTS events
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    type        VARCHAR(50)  NOT NULL,
+    description VARCHAR(300) NOT NULL,
+
+    CONSTRAINT uq_events_type UNIQUE (type)
+);
+
+CREATE TABLE IF NOT EXISTS user_events
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    event_id   BIGINT       NOT NULL,
+    device     VARCHAR(100) DEFAULT NULL,
+    ip_address VARCHAR(100) DEFAULT NULL,
+    created_at TIMESTAMP    DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_user_events_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_user_events_events FOREIGN KEY (event_id) REFERENCES events (id) ON DELETE RESTRICT
+);
+CREATE INDEX IF NOT EXISTS idx_user_events_user_created ON user_events (user_id, created_at, id);
+
+CREATE TABLE IF NOT EXISTS account_verifications
+(
+    id              BIGINT     NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id         BIGINT     NOT NULL,
+    token_hash      BINARY(32) NOT NULL,
+    expiration_date TIMESTAMP  DEFAULT NULL,
+
+    CONSTRAINT fk_account_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT uq_account_verifications_user_id UNIQUE (user_id),
+    CONSTRAINT uq_account_verifications_token_hash UNIQUE (token_hash)
+);
+CREATE INDEX IF NOT EXISTS idx_account_verifications_expiration_date ON account_verifications (expiration_date);
+
+CREATE TABLE IF NOT EXISTS reset_password_verifications
+(
+    id              BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id         BIGINT       NOT NULL,
+    token_hash      BINARY(32)   NOT NULL,
+    expiration_date TIMESTAMP    NOT NULL,
+
+    CONSTRAINT fk_reset_password_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT uq_reset_password_verifications_user_id UNIQUE (user_id),
+    CONSTRAINT uq_reset_password_verifications_token_hash UNIQUE (token_hash)
+);
+CREATE INDEX IF NOT EXISTS idx_reset_password_verifications_expiration_date ON reset_password_verifications (expiration_date);
+
+CREATE TABLE IF NOT EXISTS two_factor_verifications
+(
+    id              BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id         BIGINT      NOT NULL,
+    code            VARCHAR(10) NOT NULL,
+    expiration_date TIMESTAMP   NOT NULL,
+
+    CONSTRAINT fk_two_factor_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT uq_two_factor_verifications_user_id UNIQUE (user_id),
+    CONSTRAINT uq_two_factor_verifications_code UNIQUE (code)
+);
+CREATE INDEX IF NOT EXISTS idx_two_factor_verifications_expiration_date ON two_factor_verifications (expiration_date);
+
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id              BIGINT                 NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    recipient       VARCHAR(100)           NOT NULL,
+    subject         VARCHAR(150)           NOT NULL,
+    body            CHARACTER LARGE OBJECT NOT NULL,
+    dedupe_key      CHAR(64)               NOT NULL,
+    status          VARCHAR(10)            NOT NULL DEFAULT 'PENDING',
+    attempts        INT                    NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP              NOT NULL,
+    last_error      VARCHAR(500)           DEFAULT NULL,
+    created_at      TIMESTAMP              NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at         TIMESTAMP              DEFAULT NULL,
+
+    CONSTRAINT uq_email_outbox_dedupe_key UNIQUE (dedupe_key),
+    CONSTRAINT chk_email_outbox_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
+
+INSERT INTO roles (name, permission)
+VALUES ('ROLE_USER', 'READ:USER, READ:CUSTOMER'),
+       ('ROLE_MANAGER', 'READ:USER, READ:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER'),
+       ('ROLE_ADMIN', 'READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER'),
+       ('ROLE_SYSADMIN', 'READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER, DELETE:USER, DELETE:CUSTOMER');
+
+INSERT INTO events (type, description)
+VALUES ('LOGIN_ATTEMPT', 'Login attempt pending MFA verification'),
+       ('LOGIN_ATTEMPT_FAILURE', 'Login attempt failed'),
+       ('LOGIN_ATTEMPT_SUCCESS', 'Login attempt successful'),
+       ('PROFILE_UPDATE', 'Profile information updated'),
+       ('PROFILE_PICTURE_UPDATE', 'Profile picture updated'),
+       ('ROLE_UPDATE', 'Role and permissions updated'),
+       ('ACCOUNT_SETTINGS_UPDATE', 'Account settings updated'),
+       ('PASSWORD_UPDATE', 'Password updated'),
+       ('MFA_UPDATE', 'MFA settings updated');